@@ -0,0 +1,38 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+class AdaptiveOrder {
+    static final int REORDER_INTERVAL = 1024;
+    private final LongAdder[] hits;
+    private volatile int[] order;
+    private int untilReorder = REORDER_INTERVAL;
+
+    AdaptiveOrder(int size) {
+        hits = new LongAdder[size];
+        Arrays.setAll(hits, i -> new LongAdder());
+        order = IntStream.range(0, size).toArray();
+    }
+
+    int[] order() {
+        return order;
+    }
+
+    void hit(int index) {
+        hits[index].increment();
+        if (--untilReorder <= 0) {
+            untilReorder = REORDER_INTERVAL;
+            reorder();
+        }
+    }
+
+    private void reorder() {
+        long[] counts = Arrays.stream(hits).mapToLong(LongAdder::sum).toArray();
+        order = IntStream.range(0, hits.length).boxed()
+                .sorted(Comparator.comparingLong(i -> -counts[i]))
+                .mapToInt(Integer::intValue).toArray();
+    }
+}
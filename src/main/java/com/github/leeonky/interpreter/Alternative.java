@@ -0,0 +1,54 @@
+package com.github.leeonky.interpreter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Alternative<P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+        MA extends Parser.Mandatory<P, PA, MA, T>, T> {
+    private final Notation<?, ?, ?, P, ?> prefix;
+    private final PA parser;
+
+    Alternative(Notation<?, ?, ?, P, ?> prefix, PA parser) {
+        this.prefix = prefix;
+        this.parser = parser;
+    }
+
+    public static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> Alternative<P, PA, MA, T> alternative(PA parser) {
+        return new Alternative<>(null, parser);
+    }
+
+    private boolean samePrefix(Alternative<P, PA, MA, T> another) {
+        return prefix != null && another.prefix != null && prefix.getLabel().equals(another.prefix.getLabel());
+    }
+
+    static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> List<PA> factor(
+            List<Alternative<P, PA, MA, T>> alternatives) {
+        List<PA> parsers = new ArrayList<>();
+        for (int i = 0; i < alternatives.size(); ) {
+            Alternative<P, PA, MA, T> alternative = alternatives.get(i);
+            List<PA> suffixes = new ArrayList<>();
+            do
+                suffixes.add(alternatives.get(i++).parser);
+            while (i < alternatives.size() && alternative.samePrefix(alternatives.get(i)));
+            if (alternative.prefix == null)
+                parsers.add(alternative.parser);
+            else
+                parsers.add(alternative.prefix.before(suffixes.size() == 1 ? suffixes.get(0) : choice(suffixes)));
+        }
+        return parsers;
+    }
+
+    private static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> PA choice(List<PA> parsers) {
+        return parsers.get(0).castNullable(procedure -> {
+            for (PA parser : parsers) {
+                T t = procedure.getSourceCode().tryFetchOrNull(() -> parser.parseOrNull(procedure));
+                if (t != null)
+                    return t;
+            }
+            return null;
+        });
+    }
+}
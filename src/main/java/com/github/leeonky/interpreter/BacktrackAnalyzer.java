@@ -0,0 +1,106 @@
+package com.github.leeonky.interpreter;
+
+import java.util.*;
+
+import static java.lang.String.format;
+import static java.util.Comparator.comparingLong;
+import static java.util.stream.Collectors.toList;
+
+public class BacktrackAnalyzer {
+    private static final String ROOT = "<root>";
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private final Map<String, Set<Integer>> attempts = new HashMap<>();
+    private final Map<String, EnumMap<Risk, long[]>> counts = new LinkedHashMap<>();
+
+    void enter(String rule, int position) {
+        for (Frame frame : frames)
+            if (frame.position == position && frame.rule.equals(rule)) {
+                record(rule, Risk.UNGUARDED_RECURSION, 1);
+                break;
+            }
+        if (!attempts.computeIfAbsent(rule, k -> new HashSet<>()).add(position))
+            record(rule, Risk.REPEATED_ATTEMPT, 1);
+        frames.push(new Frame(rule, position));
+    }
+
+    void exit() {
+        frames.pop();
+    }
+
+    void rewind(int distance) {
+        if (distance > 0)
+            record(currentRule(), Risk.SHARED_PREFIX, distance);
+    }
+
+    void iterated(int from, int to) {
+        if (from == to)
+            record(currentRule(), Risk.NULLABLE_REPETITION, 1);
+    }
+
+    private String currentRule() {
+        return frames.isEmpty() ? ROOT : frames.peek().rule;
+    }
+
+    private void record(String rule, Risk risk, long count) {
+        counts.computeIfAbsent(rule, k -> new EnumMap<>(Risk.class)).computeIfAbsent(risk, k -> new long[1])[0] += count;
+    }
+
+    public List<Finding> report() {
+        List<Finding> findings = new ArrayList<>();
+        counts.forEach((rule, risks) -> risks.forEach((risk, count) -> findings.add(new Finding(rule, risk, count[0]))));
+        return findings.stream().sorted(comparingLong(Finding::getScore).reversed()).collect(toList());
+    }
+
+    public enum Risk {
+        SHARED_PREFIX(1), REPEATED_ATTEMPT(4), NULLABLE_REPETITION(64), UNGUARDED_RECURSION(1024);
+
+        private final long weight;
+
+        Risk(long weight) {
+            this.weight = weight;
+        }
+    }
+
+    public static class Finding {
+        private final String rule;
+        private final Risk risk;
+        private final long count;
+
+        Finding(String rule, Risk risk, long count) {
+            this.rule = rule;
+            this.risk = risk;
+            this.count = count;
+        }
+
+        public String getRule() {
+            return rule;
+        }
+
+        public Risk getRisk() {
+            return risk;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getScore() {
+            return count * risk.weight;
+        }
+
+        @Override
+        public String toString() {
+            return format("%s %s x%d", rule, risk, count);
+        }
+    }
+
+    private static class Frame {
+        private final String rule;
+        private final int position;
+
+        Frame(String rule, int position) {
+            this.rule = rule;
+            this.position = position;
+        }
+    }
+}
@@ -6,11 +6,40 @@ import java.util.function.Predicate;
 import java.util.function.Supplier;
 
 public class CharStream {
-    private final String code;
+    private final InputFeed feed;
+    private CharSequence code;
+    private String snapshot;
+    private int lineEnd = -1;
     int position = 0;
 
     public CharStream(String code) {
         this.code = code;
+        feed = null;
+    }
+
+    CharStream(InputFeed feed) {
+        code = "";
+        this.feed = feed;
+    }
+
+    boolean isIncremental() {
+        return feed != null;
+    }
+
+    private boolean available(int length) {
+        if (length > code.length() && feed != null)
+            code = feed.await(length);
+        return length <= code.length();
+    }
+
+    private int indexOf(String str, int from) {
+        int index;
+        while ((index = search(code, str, from)) == -1) {
+            from = Math.max(from, code.length() - str.length() + 1);
+            if (!available(code.length() + 1))
+                break;
+        }
+        return index;
     }
 
     public int position() {
@@ -22,12 +51,13 @@ public class CharStream {
     }
 
     public boolean hasContent() {
-        return position < code.length();
+        return available(position + 1);
     }
 
     private boolean codeStartWith(Notation<?, ?, ?, ?, ?> notation) {
         trimBlank();
-        return code.startsWith(notation.getLabel(), position);
+        String label = notation.getLabel();
+        return available(position + label.length()) && regionStartsWith(code, label, position);
     }
 
     public CharStream trimBlank() {
@@ -38,7 +68,7 @@ public class CharStream {
 
     public CharStream trimBlackAndComment(List<Notation<?, ?, ?, ?, ?>> comments) {
         while (comments.stream().anyMatch(this::codeStartWith)) {
-            int newLinePosition = code.indexOf("\n", position);
+            int newLinePosition = indexOf("\n", position);
             position = newLinePosition == -1 ? code.length() : newLinePosition + 1;
         }
         return trimBlank();
@@ -55,16 +85,36 @@ public class CharStream {
     }
 
     public boolean startsWith(String label) {
-        return code.startsWith(label, position);
+        return available(position + label.length()) && regionStartsWith(code, label, position);
+    }
+
+    public boolean startsWith(String label, int offset) {
+        return available(position + offset + label.length()) && regionStartsWith(code, label, position + offset);
     }
 
-    public boolean matches(TriplePredicate<String, Integer, Integer> endsWith, int length) {
-        return endsWith.test(code, position, length);
+    boolean startsWithAt(String label, int position) {
+        return available(position + label.length()) && regionStartsWith(code, label, position);
+    }
+
+    public boolean hasContent(int offset) {
+        return available(position + offset + 1);
+    }
+
+    public boolean matches(TriplePredicate<CharSequence, Integer, Integer> endsWith, int length) {
+        return endsWith.test(text(), position, length);
     }
 
     public String contentUntil(String label) {
-        int index = code.indexOf(label, position);
-        return index >= 0 ? code.substring(position, index) : code.substring(position);
+        int index = indexOf(label, position);
+        return code.subSequence(position, index >= 0 ? index : code.length()).toString();
+    }
+
+    public boolean newlineBefore(String label) {
+        for (int i = position; available(i + 1)
+                && !(available(i + label.length()) && regionStartsWith(code, label, i)); i++)
+            if (isNewline(code.charAt(i)))
+                return true;
+        return false;
     }
 
     public <N> Optional<N> tryFetch(Supplier<Optional<N>> supplier) {
@@ -76,11 +126,34 @@ public class CharStream {
     }
 
     public String getCode() {
+        if (feed == null)
+            return (String) code;
+        awaitLine();
+        if (snapshot == null || snapshot.length() != code.length())
+            snapshot = code.toString();
+        return snapshot;
+    }
+
+    CharSequence text() {
+        if (feed != null)
+            awaitLine();
         return code;
     }
 
+    private void awaitLine() {
+        if (lineEnd < position) {
+            int index = indexOf("\n", position);
+            lineEnd = index == -1 ? Integer.MAX_VALUE : index;
+        }
+    }
+
     public int lastIndexOf(String str, int position) {
-        return code.lastIndexOf(str, position);
+        if (code instanceof String)
+            return ((String) code).lastIndexOf(str, position);
+        for (int i = Math.min(position, code.length() - str.length()); i >= 0; i--)
+            if (regionStartsWith(code, str, i))
+                return i;
+        return -1;
     }
 
     public int newlineBetween(int first, int second) {
@@ -102,6 +175,78 @@ public class CharStream {
         return position;
     }
 
+    public int blockEnd(int position, String opening, String closing, List<Notation<?, ?, ?, ?, ?>> comments) {
+        int depth = 1;
+        while (available(position + 1)) {
+            char c = code.charAt(position);
+            available(position + Math.max(opening.length(), closing.length()));
+            if (regionStartsWith(code, closing, position)) {
+                if (--depth == 0)
+                    return position;
+                position += closing.length();
+            } else if (regionStartsWith(code, opening, position)) {
+                depth++;
+                position += opening.length();
+            } else if (isQuote(c))
+                position = stringEnd(position, c);
+            else if (isCommentAt(position, comments))
+                position = lineEnd(position);
+            else
+                position++;
+        }
+        return -1;
+    }
+
+    private boolean isCommentAt(int position, List<Notation<?, ?, ?, ?, ?>> comments) {
+        for (Notation<?, ?, ?, ?, ?> comment : comments)
+            if (available(position + comment.getLabel().length())
+                    && regionStartsWith(code, comment.getLabel(), position))
+                return true;
+        return false;
+    }
+
+    private int stringEnd(int position, char quote) {
+        while (available(++position + 1)) {
+            char c = code.charAt(position);
+            if (c == '\n')
+                return position;
+            if (c == '\\' && available(position + 2) && code.charAt(position + 1) != '\n')
+                position++;
+            else if (c == quote)
+                return position + 1;
+        }
+        return code.length();
+    }
+
+    private int lineEnd(int position) {
+        int newLinePosition = indexOf("\n", position);
+        return newLinePosition == -1 ? code.length() : newLinePosition + 1;
+    }
+
+    private static boolean regionStartsWith(CharSequence code, String label, int position) {
+        if (code instanceof String)
+            return ((String) code).startsWith(label, position);
+        if (position < 0 || position + label.length() > code.length())
+            return false;
+        for (int i = 0; i < label.length(); i++)
+            if (code.charAt(position + i) != label.charAt(i))
+                return false;
+        return true;
+    }
+
+    private static int search(CharSequence code, String str, int from) {
+        if (code instanceof String)
+            return ((String) code).indexOf(str, from);
+        for (int i = Math.max(from, 0); i + str.length() <= code.length(); i++)
+            if (regionStartsWith(code, str, i))
+                return i;
+        return -1;
+    }
+
+    private static boolean isQuote(char c) {
+        return c == '"' || c == '\'';
+    }
+
     private static boolean isBlank(char c) {
         return c == ' ' || c == '\b' || c == '\t';
     }
@@ -1,7 +1,5 @@
 package com.github.leeonky.interpreter;
 
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
 
@@ -10,8 +8,10 @@ public interface ClauseParser<N extends Node<?, N>, P extends Procedure<?, N, ?,
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> ClauseParser<N, P> positionClause(
             ClauseParser<N, P> clauseParser) {
-        return procedure -> procedure.positionOf((position, indent) -> clauseParser.parse(procedure)
-                .map(clause -> node -> clause.expression(node).setPositionBegin(position).setIndent(indent)));
+        return nullable(procedure -> procedure.positionOf((position, indent) -> {
+            Clause<N> clause = clauseParser.parseOrNull(procedure);
+            return clause == null ? null : node -> clause.expression(node).setPositionBegin(position).setIndent(indent);
+        }));
     }
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> ClauseParser.Mandatory<N, P> positionClause(
@@ -24,12 +24,29 @@ public interface ClauseParser<N extends Node<?, N>, P extends Procedure<?, N, ?,
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> ClauseParser.Mandatory<N, P> columnMandatory(
             Function<Integer, ClauseParser.Mandatory<N, P>> mandatoryFactory) {
-        return procedure -> mandatoryFactory.apply(procedure.getColumn()).parse(procedure);
+        ColumnCache<Mandatory<N, P>> mandatories = new ColumnCache<>(mandatoryFactory);
+        return procedure -> mandatories.get(procedure.getColumn()).parse(procedure);
     }
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> ClauseParser<N, P> columnParser(
             Function<Integer, ClauseParser<N, P>> parserFactory) {
-        return procedure -> parserFactory.apply(procedure.getColumn()).parse(procedure);
+        ColumnCache<ClauseParser<N, P>> parsers = new ColumnCache<>(parserFactory);
+        return nullable(procedure -> parsers.get(procedure.getColumn()).parseOrNull(procedure));
+    }
+
+    static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> ClauseParser<N, P> nullable(
+            Parser.Nullable<P, Clause<N>> parser) {
+        return new ClauseParser<N, P>() {
+            @Override
+            public Optional<Clause<N>> parse(P procedure) {
+                return Optional.ofNullable(parser.parseOrNull(procedure));
+            }
+
+            @Override
+            public Clause<N> parseOrNull(P procedure) {
+                return parser.parseOrNull(procedure);
+            }
+        };
     }
 
     @Override
@@ -44,35 +61,55 @@ public interface ClauseParser<N extends Node<?, N>, P extends Procedure<?, N, ?,
         return mandatory::parse;
     }
 
+    @Override
+    default ClauseParser<N, P> castNullable(Parser.Nullable<P, Clause<N>> parser) {
+        return nullable(parser);
+    }
+
     default ClauseParser<N, P> concat(ClauseParser<N, P> clause) {
-        return procedure -> parse(procedure).map(c1 -> clause.parse(procedure).<Clause<N>>map(c2 -> previous ->
-                c2.expression(c1.expression(previous))).orElse(c1));
+        return nullable(procedure -> {
+            Clause<N> c1 = parseOrNull(procedure);
+            if (c1 == null)
+                return null;
+            Clause<N> c2 = clause.parseOrNull(procedure);
+            return c2 == null ? c1 : previous -> c2.expression(c1.expression(previous));
+        });
     }
 
     default Optional<N> parseAndMakeExpression(P procedure, N node) {
-        return parse(procedure).map(clause -> clause.expression(node));
+        return Optional.ofNullable(parseAndMakeExpressionOrNull(procedure, node));
+    }
+
+    default N parseAndMakeExpressionOrNull(P procedure, N node) {
+        Clause<N> clause = parseOrNull(procedure);
+        return clause == null ? null : clause.expression(node);
     }
 
     default N parseAndMakeExpressionOrInput(P procedure, N input) {
-        return parseAndMakeExpression(procedure, input).orElse(input);
+        N expression = parseAndMakeExpressionOrNull(procedure, input);
+        return expression == null ? input : expression;
     }
 
     default N parseAndMakeExpressionOrInputContinuously(P procedure, N node) {
+        procedure.getSourceCode().step();
+        int position = procedure.getSourceCode().chars().position();
         N expression = parseAndMakeExpressionOrInput(procedure, node);
-        if (expression == node)
+        if (expression == node && (!procedure.isValidationMode()
+                || procedure.getSourceCode().chars().position() == position))
             return expression;
         return parseAndMakeExpressionOrInputContinuously(procedure, expression);
     }
 
     default ClauseParser<N, P> concatAll(ClauseParser<N, P> clauseParser) {
-        return procedure -> {
-            List<Clause<N>> clauses = new ArrayList<>();
-            for (Optional<Clause<N>> optionalClause = parse(procedure);
-                 optionalClause.isPresent();
-                 optionalClause = clauseParser.parse(procedure))
-                clauses.add(optionalClause.get());
-            return clauses.stream().reduce(Clause::merge);
-        };
+        return nullable(procedure -> {
+            Clause<N> clauses = null;
+            for (Clause<N> clause = parseOrNull(procedure); clause != null;
+                 clause = clauseParser.parseOrNull(procedure)) {
+                procedure.getSourceCode().step();
+                clauses = clauses == null ? clause : clauses.merge(clause);
+            }
+            return clauses;
+        });
     }
 
     interface Mandatory<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> extends
@@ -88,5 +125,10 @@ public interface ClauseParser<N extends Node<?, N>, P extends Procedure<?, N, ?,
                 Mandatory<N, P>, Clause<N>> parser) {
             return parser::parse;
         }
+
+        @Override
+        default ClauseParser<N, P> castNullable(Parser.Nullable<P, Clause<N>> parser) {
+            return nullable(parser);
+        }
     }
 }
@@ -0,0 +1,23 @@
+package com.github.leeonky.interpreter;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+class ColumnCache<T> {
+    static final int MAX_COLUMNS = 256;
+    private final Function<Integer, T> factory;
+    private final AtomicReferenceArray<T> cache = new AtomicReferenceArray<>(MAX_COLUMNS);
+
+    ColumnCache(Function<Integer, T> factory) {
+        this.factory = factory;
+    }
+
+    T get(int column) {
+        if (column < 0 || column >= MAX_COLUMNS)
+            return factory.apply(column);
+        T value = cache.get(column);
+        if (value == null && !cache.compareAndSet(column, null, value = factory.apply(column)))
+            value = cache.get(column);
+        return value;
+    }
+}
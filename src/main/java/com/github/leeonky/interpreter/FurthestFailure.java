@@ -0,0 +1,49 @@
+package com.github.leeonky.interpreter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.stream.Collectors.joining;
+
+public class FurthestFailure {
+    private final List<String> expected = new ArrayList<>();
+    private int position = -1;
+
+    public int getPosition() {
+        return position;
+    }
+
+    public List<String> getExpected() {
+        return Collections.unmodifiableList(expected);
+    }
+
+    void expect(int position, String label) {
+        if (position > this.position) {
+            this.position = position;
+            expected.clear();
+        }
+        if (position == this.position && !expected.contains(label))
+            expected.add(label);
+    }
+
+    int size() {
+        return expected.size();
+    }
+
+    void relabel(int markPosition, int markSize, int position, String label) {
+        if (this.position > position)
+            return;
+        if (this.position == position)
+            expected.subList(markPosition == position ? markSize : 0, expected.size()).clear();
+        expect(position, label);
+    }
+
+    public SyntaxException syntaxError(String message, int currentPosition) {
+        if (position < currentPosition || expected.isEmpty())
+            return new SyntaxException(message, currentPosition);
+        return new SyntaxException(format("%s, expect %s", message,
+                expected.stream().collect(joining("` or `", "`", "`"))), position);
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+class GatedNodeParser<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> implements NodeParser<N, P> {
+    private final Function<Predicate<P>, Parser.Nullable<P, N>> parser;
+    private final Predicate<P> gate;
+    private final Parser.Nullable<P, N> gated;
+    private final boolean rewind;
+
+    GatedNodeParser(Function<Predicate<P>, Parser.Nullable<P, N>> parser) {
+        this(parser, procedure -> true, false);
+    }
+
+    private GatedNodeParser(Function<Predicate<P>, Parser.Nullable<P, N>> parser, Predicate<P> gate,
+                            boolean rewind) {
+        this.parser = parser;
+        this.gate = gate;
+        this.rewind = rewind;
+        gated = parser.apply(gate);
+    }
+
+    @Override
+    public Optional<N> parse(P procedure) {
+        return Optional.ofNullable(parseOrNull(procedure));
+    }
+
+    @Override
+    public N parseOrNull(P procedure) {
+        if (rewind)
+            return procedure.getSourceCode().tryFetchOrNull(() -> gated.parseOrNull(procedure));
+        return gated.parseOrNull(procedure);
+    }
+
+    @Override
+    public NodeParser<N, P> followedBy(Notation<?, ?, ?, P, ?> notation) {
+        return new GatedNodeParser<>(parser, gate.and(procedure -> procedure.getSourceCode().startsWith(notation)),
+                true);
+    }
+
+    @Override
+    public NodeParser<N, P> notFollowedBy(Notation<?, ?, ?, P, ?> notation) {
+        return new GatedNodeParser<>(parser, gate.and(procedure -> !procedure.getSourceCode().startsWith(notation)),
+                true);
+    }
+}
@@ -0,0 +1,114 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Arrays;
+
+class InputFeed {
+    private static final int CHUNK_BITS = 12, CHUNK_SIZE = 1 << CHUNK_BITS;
+    private char[][] chunks = new char[16][];
+    private int length;
+    private Text text = new Text(chunks, 0);
+    private boolean finished, waiting, done, cancelled;
+
+    synchronized void append(String chunk) {
+        if (done)
+            throw new IllegalStateException("Parse already completed");
+        if (finished || cancelled)
+            throw new IllegalStateException("Input already finished");
+        for (int copied = 0; copied < chunk.length(); ) {
+            int index = length >> CHUNK_BITS, offset = length & (CHUNK_SIZE - 1);
+            if (index == chunks.length)
+                chunks = Arrays.copyOf(chunks, index * 2);
+            if (chunks[index] == null)
+                chunks[index] = new char[CHUNK_SIZE];
+            int size = Math.min(chunk.length() - copied, CHUNK_SIZE - offset);
+            chunk.getChars(copied, copied + size, chunks[index], offset);
+            copied += size;
+            length += size;
+        }
+        waiting = false;
+        notifyAll();
+    }
+
+    synchronized void finish() {
+        finished = true;
+        waiting = false;
+        notifyAll();
+    }
+
+    synchronized void cancel() {
+        cancelled = true;
+        waiting = false;
+        notifyAll();
+    }
+
+    synchronized void done() {
+        done = true;
+        waiting = false;
+        chunks = null;
+        text = null;
+        notifyAll();
+    }
+
+    synchronized CharSequence await(int length) {
+        while (this.length < length && !finished && !cancelled) {
+            waiting = true;
+            notifyAll();
+            waitQuietly();
+        }
+        if (cancelled)
+            throw new ParseLimitException(ParseLimitException.Limit.CANCELLED, "Parse cancelled", this.length);
+        if (text.length() != this.length)
+            text = new Text(chunks, this.length);
+        return text;
+    }
+
+    synchronized boolean awaitParser() {
+        while (!waiting && !done)
+            waitQuietly();
+        return waiting;
+    }
+
+    private void waitQuietly() {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class Text implements CharSequence {
+        private final char[][] chunks;
+        private final int length;
+
+        Text(char[][] chunks, int length) {
+            this.chunks = chunks;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length)
+                throw new StringIndexOutOfBoundsException(index);
+            return chunks[index >> CHUNK_BITS][index & (CHUNK_SIZE - 1)];
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder builder = new StringBuilder(end - start);
+            for (int i = start; i < end; i++)
+                builder.append(charAt(i));
+            return builder.toString();
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length).toString();
+        }
+    }
+}
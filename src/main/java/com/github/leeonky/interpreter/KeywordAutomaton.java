@@ -0,0 +1,95 @@
+package com.github.leeonky.interpreter;
+
+import java.util.*;
+
+class KeywordAutomaton {
+    private static final int ASCII = 128;
+    private final List<int[]> transitions = new ArrayList<>();
+    private final Map<Long, Integer> wideTransitions = new HashMap<>();
+    private final IntArray keywords = new IntArray(), depths = new IntArray();
+
+    private KeywordAutomaton(List<String> words) {
+        newState(0);
+        for (int index = 0; index < words.size(); index++) {
+            String word = words.get(index);
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int next = next(state, word.charAt(i));
+                if (next == -1) {
+                    next = newState(i + 1);
+                    link(state, word.charAt(i), next);
+                }
+                state = next;
+            }
+            if (keywords.get(state) == -1)
+                keywords.set(state, index);
+        }
+    }
+
+    static KeywordAutomaton compile(Collection<String> words) {
+        return new KeywordAutomaton(new ArrayList<>(words));
+    }
+
+    private int newState(int depth) {
+        int[] table = new int[ASCII];
+        Arrays.fill(table, -1);
+        transitions.add(table);
+        keywords.add(-1);
+        depths.add(depth);
+        return transitions.size() - 1;
+    }
+
+    private void link(int state, char c, int next) {
+        if (c < ASCII)
+            transitions.get(state)[c] = next;
+        else
+            wideTransitions.put(((long) state << 16) | c, next);
+    }
+
+    int start() {
+        return 0;
+    }
+
+    int next(int state, char c) {
+        if (state == -1)
+            return -1;
+        if (c < ASCII)
+            return transitions.get(state)[c];
+        return wideTransitions.getOrDefault(((long) state << 16) | c, -1);
+    }
+
+    int keyword(int state) {
+        return state == -1 ? -1 : keywords.get(state);
+    }
+
+    int depth(int state) {
+        return depths.get(state);
+    }
+
+    int longest(CharSequence code, int position) {
+        int state = start(), longest = -1;
+        for (int i = position; i < code.length() && (state = next(state, code.charAt(i))) != -1; i++)
+            if (keyword(state) != -1)
+                longest = state;
+        return longest;
+    }
+
+    private static class IntArray {
+        private int[] values = new int[16];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        void set(int index, int value) {
+            values[index] = value;
+        }
+    }
+}
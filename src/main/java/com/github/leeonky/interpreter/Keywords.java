@@ -0,0 +1,71 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Collection;
+import java.util.TreeSet;
+
+public class Keywords {
+    private final String[][] tables;
+    private final int[] lengths;
+
+    private Keywords(Collection<String> words) {
+        TreeSet<Integer> lengths = new TreeSet<>();
+        words.forEach(word -> lengths.add(word.length()));
+        this.lengths = lengths.stream().mapToInt(Integer::intValue).toArray();
+        tables = new String[lengths.isEmpty() ? 0 : lengths.last() + 1][];
+        for (int length : this.lengths)
+            tables[length] = new String[tableSize((int) words.stream().filter(w -> w.length() == length).count())];
+        words.forEach(this::put);
+    }
+
+    public static Keywords of(Collection<String> words) {
+        return new Keywords(words);
+    }
+
+    private static int tableSize(int count) {
+        return Integer.highestOneBit(count * 2 + 1) << 1;
+    }
+
+    private void put(String word) {
+        String[] table = tables[word.length()];
+        int index = word.hashCode() & (table.length - 1);
+        while (table[index] != null && !table[index].equals(word))
+            index = (index + 1) & (table.length - 1);
+        table[index] = word;
+    }
+
+    public boolean contains(CharSequence buffer, int start, int end) {
+        int length = end - start;
+        if (length >= tables.length || tables[length] == null)
+            return false;
+        String[] table = tables[length];
+        for (int index = hash(buffer, start, end) & (table.length - 1); table[index] != null;
+             index = (index + 1) & (table.length - 1))
+            if (matches(table[index], buffer, start))
+                return true;
+        return false;
+    }
+
+    public boolean startsAt(CharSequence buffer, int position) {
+        for (int length : lengths) {
+            if (position + length > buffer.length())
+                return false;
+            if (contains(buffer, position, position + length))
+                return true;
+        }
+        return false;
+    }
+
+    private static int hash(CharSequence buffer, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + buffer.charAt(i);
+        return hash;
+    }
+
+    private static boolean matches(String word, CharSequence buffer, int start) {
+        for (int i = 0; i < word.length(); i++)
+            if (word.charAt(i) != buffer.charAt(start + i))
+                return false;
+        return true;
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.leeonky.interpreter;
+
+import java.util.*;
+
+public class LexedCode {
+    private final String code;
+    private final int[] significant;
+    private final int[] longest;
+    private final String[] labels;
+    private final Map<String, Integer> kinds = new HashMap<>();
+    private int[] tokens;
+
+    private LexedCode(String code, List<Notation<?, ?, ?, ?, ?>> comments, Collection<String> labels) {
+        this.code = code;
+        this.labels = labels.stream().distinct().toArray(String[]::new);
+        for (int kind = 0; kind < this.labels.length; kind++)
+            kinds.put(this.labels[kind], kind);
+        significant = significant(comments);
+        longest = longest();
+    }
+
+    public static LexedCode lex(String code, List<Notation<?, ?, ?, ?, ?>> comments,
+                                Collection<? extends Notation<?, ?, ?, ?, ?>> notations) {
+        List<String> labels = new ArrayList<>();
+        for (Notation<?, ?, ?, ?, ?> notation : notations)
+            labels.add(notation.getLabel());
+        return new LexedCode(code, comments, labels);
+    }
+
+    private int[] significant(List<Notation<?, ?, ?, ?, ?>> comments) {
+        int[] significant = new int[code.length() + 1];
+        significant[code.length()] = code.length();
+        int lineEnd = code.length();
+        for (int position = code.length() - 1; position >= 0; position--) {
+            char c = code.charAt(position);
+            if (c == '\n')
+                lineEnd = position;
+            if (Character.isWhitespace(c))
+                significant[position] = significant[position + 1];
+            else if (isCommentAt(position, comments))
+                significant[position] = lineEnd == code.length() ? code.length() : significant[lineEnd + 1];
+            else
+                significant[position] = position;
+        }
+        return significant;
+    }
+
+    private boolean isCommentAt(int position, List<Notation<?, ?, ?, ?, ?>> comments) {
+        for (Notation<?, ?, ?, ?, ?> comment : comments)
+            if (code.startsWith(comment.getLabel(), position))
+                return true;
+        return false;
+    }
+
+    private int[] longest() {
+        Map<Character, List<Integer>> byFirstChar = new HashMap<>();
+        for (int kind = 0; kind < labels.length; kind++)
+            if (!labels[kind].isEmpty())
+                byFirstChar.computeIfAbsent(labels[kind].charAt(0), k -> new ArrayList<>()).add(kind);
+        byFirstChar.values().forEach(list -> list.sort(Comparator.comparingInt((Integer kind) ->
+                labels[kind].length()).reversed()));
+        int[] longest = new int[code.length()];
+        for (int position = 0; position < code.length(); position++) {
+            longest[position] = -1;
+            List<Integer> candidates = byFirstChar.get(code.charAt(position));
+            if (candidates != null)
+                for (int kind : candidates)
+                    if (code.startsWith(labels[kind], position)) {
+                        longest[position] = kind;
+                        break;
+                    }
+        }
+        return longest;
+    }
+
+    public int skip(int position) {
+        return significant[position];
+    }
+
+    public boolean startsWith(int position, String label) {
+        Integer kind = kinds.get(label);
+        if (kind == null || label.isEmpty())
+            return code.startsWith(label, position);
+        if (position >= longest.length || longest[position] == -1)
+            return false;
+        return labels[longest[position]].startsWith(label);
+    }
+
+    public int kind(String label) {
+        return kinds.getOrDefault(label, -1);
+    }
+
+    public String label(int kind) {
+        return labels[kind];
+    }
+
+    public int[] tokens() {
+        if (tokens == null) {
+            int[] tokens = new int[48];
+            int size = 0;
+            for (int position = significant[0]; position < code.length(); ) {
+                int kind = longest[position];
+                int end = position + (kind == -1 ? 1 : labels[kind].length());
+                if (kind == -1)
+                    while (end < code.length() && longest[end] == -1 && significant[end] == end)
+                        end++;
+                if (size + 3 > tokens.length)
+                    tokens = Arrays.copyOf(tokens, tokens.length * 2);
+                tokens[size++] = kind;
+                tokens[size++] = position;
+                tokens[size++] = end;
+                position = significant[end];
+            }
+            this.tokens = Arrays.copyOf(tokens, size);
+        }
+        return tokens;
+    }
+}
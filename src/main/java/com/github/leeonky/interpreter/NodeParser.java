@@ -1,9 +1,9 @@
 package com.github.leeonky.interpreter;
 
+import java.util.Optional;
 import java.util.function.BiFunction;
 import java.util.function.Function;
-
-import static java.util.Optional.ofNullable;
+import java.util.function.Predicate;
 
 public interface NodeParser<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>>
         extends Parser<P, NodeParser<N, P>, NodeParser.Mandatory<N, P>, N> {
@@ -16,18 +16,42 @@ public interface NodeParser<N extends Node<?, N>, P extends Procedure<?, N, ?, ?
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser<N, P> positionNode(
             NodeParser<N, P> mandatory) {
-        return procedure -> procedure.positionOf((position, indent) -> mandatory.parse(procedure)
-                .map(node -> node.setPositionBegin(position).setIndent(indent)));
+        return nullable(procedure -> procedure.positionOf((position, indent) -> {
+            N node = mandatory.parseOrNull(procedure);
+            return node == null ? null : node.setPositionBegin(position).setIndent(indent);
+        }));
     }
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser.Mandatory<N, P> columnMandatory(
             Function<Integer, NodeParser.Mandatory<N, P>> mandatoryFactory) {
-        return procedure -> mandatoryFactory.apply(procedure.getColumn()).parse(procedure);
+        ColumnCache<Mandatory<N, P>> mandatories = new ColumnCache<>(mandatoryFactory);
+        return procedure -> mandatories.get(procedure.getColumn()).parse(procedure);
     }
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser<N, P> columnParser(
             Function<Integer, NodeParser<N, P>> parserFactory) {
-        return procedure -> parserFactory.apply(procedure.getColumn()).parse(procedure);
+        ColumnCache<NodeParser<N, P>> parsers = new ColumnCache<>(parserFactory);
+        return nullable(procedure -> parsers.get(procedure.getColumn()).parseOrNull(procedure));
+    }
+
+    static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser<N, P> nullable(
+            Parser.Nullable<P, N> parser) {
+        return new NodeParser<N, P>() {
+            @Override
+            public Optional<N> parse(P procedure) {
+                return Optional.ofNullable(parser.parseOrNull(procedure));
+            }
+
+            @Override
+            public N parseOrNull(P procedure) {
+                return parser.parseOrNull(procedure);
+            }
+        };
+    }
+
+    static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser<N, P> gated(
+            Function<Predicate<P>, Parser.Nullable<P, N>> parser) {
+        return new GatedNodeParser<>(parser);
     }
 
     @Override
@@ -42,31 +66,52 @@ public interface NodeParser<N extends Node<?, N>, P extends Procedure<?, N, ?, ?
         return mandatory::parse;
     }
 
+    @Override
+    default NodeParser<N, P> castNullable(Parser.Nullable<P, N> parser) {
+        return nullable(parser);
+    }
+
     default NodeParser<N, P> concat(ClauseParser.Mandatory<N, P> mandatory) {
-        return procedure -> parse(procedure).map(node -> mandatory.parse(procedure).expression(node));
+        return nullable(procedure -> {
+            N node = parseOrNull(procedure);
+            return node == null ? null : mandatory.parse(procedure).expression(node);
+        });
     }
 
     default NodeParser<N, P> concat(ClauseParser<N, P> clauseParser) {
-        return procedure -> parse(procedure).map(node -> clauseParser.parseAndMakeExpressionOrInput(procedure, node));
+        return nullable(procedure -> {
+            N node = parseOrNull(procedure);
+            return node == null ? null : clauseParser.parseAndMakeExpressionOrInput(procedure, node);
+        });
     }
 
     default NodeParser<N, P> concatAll(ClauseParser<N, P> clauseParser) {
-        return procedure -> parse(procedure).map(node ->
-                clauseParser.parseAndMakeExpressionOrInputContinuously(procedure, node));
+        return nullable(procedure -> {
+            N node = parseOrNull(procedure);
+            return node == null ? null : clauseParser.parseAndMakeExpressionOrInputContinuously(procedure, node);
+        });
     }
 
     default NodeParser<N, P> with(ClauseParser<N, P> clauseParser) {
-        return procedure -> procedure.getSourceCode().tryFetch(() -> parse(procedure)
-                .flatMap(node -> clauseParser.parseAndMakeExpression(procedure, node)));
+        return nullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() -> {
+            N node = parseOrNull(procedure);
+            return node == null ? null : clauseParser.parseAndMakeExpressionOrNull(procedure, node);
+        }));
     }
 
     default NodeParser<N, P> with(ClauseParser.Mandatory<N, P> mandatory) {
-        return procedure -> procedure.getSourceCode().tryFetch(() -> parse(procedure)
-                .flatMap(node -> ofNullable(mandatory.parse(procedure).expression(node))));
+        return nullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() -> {
+            N node = parseOrNull(procedure);
+            return node == null ? null : mandatory.parse(procedure).expression(node);
+        }));
     }
 
     default ClauseParser<N, P> clause(BiFunction<N, N, N> biFunction) {
-        return procedure -> parse(procedure).map(n -> input -> biFunction.apply(input, n));
+        return ClauseParser.nullable(procedure -> {
+            N n = parseOrNull(procedure);
+            return n == null ? null : input -> procedure.isValidationMode() ?
+                    procedure.getValidationNode() : biFunction.apply(input, n);
+        });
     }
 
     interface Mandatory<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> extends
@@ -83,6 +128,11 @@ public interface NodeParser<N extends Node<?, N>, P extends Procedure<?, N, ?, ?
             return mandatory::parse;
         }
 
+        @Override
+        default NodeParser<N, P> castNullable(Parser.Nullable<P, N> parser) {
+            return nullable(parser);
+        }
+
         default Mandatory<N, P> concat(ClauseParser.Mandatory<N, P> clauseMandatory) {
             return procedure -> {
                 N node = parse(procedure);
@@ -99,8 +149,8 @@ public interface NodeParser<N extends Node<?, N>, P extends Procedure<?, N, ?, ?
         }
 
         default NodeParser<N, P> with(ClauseParser<N, P> clauseParser) {
-            return procedure -> procedure.getSourceCode().tryFetch(() ->
-                    clauseParser.parseAndMakeExpression(procedure, parse(procedure)));
+            return nullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() ->
+                    clauseParser.parseAndMakeExpressionOrNull(procedure, parse(procedure))));
         }
 
         default NodeParser.Mandatory<N, P> with(ClauseParser.Mandatory<N, P> mandatory) {
@@ -32,32 +32,44 @@ public class Notation<C extends RuntimeContext, N extends Node<C, N>, O extends
         return label.length();
     }
 
-    private Optional<Token> getToken(P procedure, Predicate<P> predicate) {
-        return procedure.getSourceCode().popWord(this, () -> predicate.test(procedure));
+    private Token getToken(P procedure, Predicate<P> predicate) {
+        return procedure.getSourceCode().popWordOrNull(this, () -> predicate.test(procedure));
     }
 
-    private Optional<Token> getToken(P procedure) {
-        return getToken(procedure, p -> true);
+    private Token getToken(P procedure) {
+        return procedure.getSourceCode().popWordOrNull(this, () -> true);
     }
 
     public NodeParser<N, P> node(Function<String, N> factory) {
-        return procedure -> getToken(procedure).map(token ->
-                factory.apply(token.getContent()).setPositionBegin(token.getPosition()));
+        return NodeParser.gated(gate -> procedure -> {
+            Token token = getToken(procedure);
+            return token == null || !gate.test(procedure) ? null : createNode(procedure, factory, token);
+        });
+    }
+
+    private N createNode(P procedure, Function<String, N> factory, Token token) {
+        procedure.emitToken(token);
+        return (procedure.isValidationMode() ? procedure.getValidationNode() : factory.apply(label))
+                .setPositionBegin(token.getPosition());
     }
 
     public NodeParser<N, P> wordNode(Function<String, N> factory, Set<String> delimiter) {
-        return procedure -> procedure.getSourceCode().tryFetch(() -> getToken(procedure).map(token ->
-                notAWord(delimiter, procedure) ? null :
-                        factory.apply(token.getContent()).setPositionBegin(token.getPosition())));
+        Keywords delimiters = Keywords.of(delimiter);
+        return NodeParser.gated(gate -> procedure -> procedure.getSourceCode().tryFetchOrNull(() -> {
+            Token token = getToken(procedure, p -> isAWord(delimiters, p));
+            return token == null || !gate.test(procedure) ? null : createNode(procedure, factory, token);
+        }));
     }
 
-    private boolean notAWord(Set<String> delimiter, P procedure) {
-        return procedure.getSourceCode().hasCode()
-               && delimiter.stream().noneMatch(s -> procedure.getSourceCode().startsWith(s));
+    private boolean isAWord(Keywords delimiter, P procedure) {
+        return procedure.getSourceCode().endsWord(this, delimiter);
     }
 
     public OperatorParser<C, N, O, P, E> operator(Supplier<O> factory, Predicate<P> predicate) {
-        return procedure -> getToken(procedure, predicate).map(token -> factory.get().setPosition(token.getPosition()));
+        return OperatorParser.nullable(procedure -> {
+            Token token = getToken(procedure, predicate);
+            return token == null ? null : factory.get().setPosition(token.getPosition());
+        });
     }
 
     public OperatorParser<C, N, O, P, E> operator(Supplier<O> factory) {
@@ -65,26 +77,46 @@ public class Notation<C extends RuntimeContext, N extends Node<C, N>, O extends
     }
 
     public OperatorParser<C, N, O, P, E> keywordOperator(Supplier<O> factory, Set<String> Delimiter) {
-        return procedure -> procedure.getSourceCode().tryFetch(() -> operator(factory, p -> true)
-                .parse(procedure).map(operator -> notAWord(Delimiter, procedure) ? null : operator));
+        Keywords delimiters = Keywords.of(Delimiter);
+        OperatorParser<C, N, O, P, E> operator = operator(factory, procedure -> isAWord(delimiters, procedure));
+        return OperatorParser.nullable(procedure -> procedure.getSourceCode()
+                .tryFetchOrNull(() -> operator.parseOrNull(procedure)));
     }
 
     public NodeParser<N, P> with(NodeParser.Mandatory<N, P> mandatory) {
-        return procedure -> getToken(procedure).map(t -> mandatory.parse(procedure).setPositionBegin(t.getPosition()));
+        return NodeParser.nullable(procedure -> {
+            Token token = getToken(procedure);
+            return token == null ? null : mandatory.parse(procedure).setPositionBegin(token.getPosition());
+        });
     }
 
     public <PA extends Parser<P, PA, MA, T>, MA extends Parser.Mandatory<P, PA, MA, T>, T> PA before(PA parser) {
-        return parser.castParser(procedure -> procedure.getSourceCode().tryFetch(() -> getToken(procedure)
-                .flatMap(t -> parser.parse(procedure))));
+        return parser.castNullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() ->
+                getToken(procedure) == null ? null : parser.parseOrNull(procedure)));
+    }
+
+    public NotationSequence<C, N, O, P, E> then(Notation<C, N, O, P, E> notation) {
+        return new NotationSequence<C, N, O, P, E>(this).then(notation);
+    }
+
+    public <PA extends Parser<P, PA, MA, T>, MA extends Parser.Mandatory<P, PA, MA, T>, T> Alternative<P, PA, MA, T>
+    alternative(PA parser) {
+        return new Alternative<>(this, parser);
     }
 
     public <PA extends Parser<P, PA, MA, T>, MA extends Parser.Mandatory<P, PA, MA, T>, T> PA before(MA ma) {
-        return ma.castParser(procedure -> getToken(procedure).map(t -> ma.parse(procedure)));
+        return ma.castNullable(procedure -> getToken(procedure) == null ? null : ma.parse(procedure));
     }
 
     public ClauseParser<N, P> clause(BiFunction<Token, N, N> nodeFactory) {
-        return procedure -> getToken(procedure).map(token -> input ->
-                nodeFactory.apply(token, input).setPositionBegin(token.getPosition()));
+        return ClauseParser.nullable(procedure -> {
+            Token token = getToken(procedure);
+            return token == null ? null : input -> {
+                procedure.emitClause(token);
+                return (procedure.isValidationMode() ? procedure.getValidationNode() : nodeFactory.apply(token, input))
+                        .setPositionBegin(token.getPosition());
+            };
+        });
     }
 
     @Override
@@ -92,6 +124,11 @@ public class Notation<C extends RuntimeContext, N extends Node<C, N>, O extends
         return procedure.getSourceCode().popString(getLabel());
     }
 
+    @Override
+    public String parseOrNull(P procedure) {
+        return procedure.getSourceCode().popStringOrNull(getLabel());
+    }
+
     public Set<Notation<C, N, O, P, E>> postfix(Set<?> postfixes) {
         return postfixes.stream().map(c -> getLabel() + c).map(label -> Notation.<C, N, O, P, E>notation(label)).collect(toSet());
     }
@@ -0,0 +1,36 @@
+package com.github.leeonky.interpreter;
+
+import static java.lang.Boolean.TRUE;
+
+public class NotationSequence<C extends RuntimeContext, N extends Node<C, N>, O extends Operator<C, N, O, E>,
+        P extends Procedure<C, N, E, O>, E extends Expression<C, N, E, O>> {
+    private final Notation<?, ?, ?, ?, ?>[] notations;
+
+    NotationSequence(Notation<?, ?, ?, ?, ?>... notations) {
+        this.notations = notations;
+    }
+
+    public NotationSequence<C, N, O, P, E> then(Notation<C, N, O, P, E> notation) {
+        Notation<?, ?, ?, ?, ?>[] notations = new Notation<?, ?, ?, ?, ?>[this.notations.length + 1];
+        System.arraycopy(this.notations, 0, notations, 0, this.notations.length);
+        notations[this.notations.length] = notation;
+        return new NotationSequence<>(notations);
+    }
+
+    private boolean skipAll(SourceCode sourceCode) {
+        for (Notation<?, ?, ?, ?, ?> notation : notations)
+            if (!sourceCode.skipWord(notation))
+                return false;
+        return true;
+    }
+
+    public <PA extends Parser<P, PA, MA, T>, MA extends Parser.Mandatory<P, PA, MA, T>, T> PA before(PA parser) {
+        return parser.castNullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() ->
+                skipAll(procedure.getSourceCode()) ? parser.parseOrNull(procedure) : null));
+    }
+
+    public <PA extends Parser<P, PA, MA, T>, MA extends Parser.Mandatory<P, PA, MA, T>, T> PA before(MA ma) {
+        return ma.castNullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() ->
+                skipAll(procedure.getSourceCode()) ? TRUE : null) == null ? null : ma.parse(procedure));
+    }
+}
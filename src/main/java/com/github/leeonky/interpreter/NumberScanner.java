@@ -0,0 +1,111 @@
+package com.github.leeonky.interpreter;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+public class NumberScanner {
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private NumberScanner() {
+    }
+
+    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser<N, P> numberNode(
+            Factory<N> factory, Set<String> delimiters) {
+        Keywords boundaries = Keywords.of(delimiters);
+        return NodeParser.gated(gate -> procedure -> {
+            SourceCode sourceCode = procedure.getSourceCode();
+            int start = sourceCode.nextPosition();
+            CharSequence code = sourceCode.chars().text();
+            if (start >= code.length() || !isDigit(code.charAt(start)))
+                return null;
+            int end = end(code, start);
+            if (end < code.length() && !boundaries.startsAt(code, end))
+                return null;
+            sourceCode.chars().position = end;
+            if (!gate.test(procedure))
+                return null;
+            if (procedure.isListening())
+                procedure.emitToken(new Token(start).append(code, start, end));
+            N node = procedure.isValidationMode() ? procedure.getValidationNode() : create(factory, code, start, end);
+            return node.setPositionBegin(start);
+        });
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int end(CharSequence code, int position) {
+        position = digits(code, position);
+        if (position + 1 < code.length() && code.charAt(position) == '.' && isDigit(code.charAt(position + 1)))
+            position = digits(code, position + 1);
+        if (position < code.length() && (code.charAt(position) == 'e' || code.charAt(position) == 'E')) {
+            int index = position + 1;
+            if (index < code.length() && (code.charAt(index) == '+' || code.charAt(index) == '-'))
+                index++;
+            if (index < code.length() && isDigit(code.charAt(index)))
+                position = digits(code, index);
+        }
+        return position;
+    }
+
+    private static int digits(CharSequence code, int position) {
+        while (position < code.length() && isDigit(code.charAt(position)))
+            position++;
+        return position;
+    }
+
+    private static <N> N create(Factory<N> factory, CharSequence code, int start, int end) {
+        long mantissa = 0;
+        boolean overflow = false, integer = true;
+        int scale = 0, position = start;
+        for (; position < end; position++) {
+            char c = code.charAt(position);
+            if (c == 'e' || c == 'E') {
+                integer = false;
+                break;
+            }
+            if (c == '.') {
+                integer = false;
+                continue;
+            }
+            int digit = c - '0';
+            if (mantissa > (Long.MAX_VALUE - digit) / 10)
+                overflow = true;
+            else {
+                mantissa = mantissa * 10 + digit;
+                if (!integer)
+                    scale++;
+            }
+        }
+        if (integer)
+            return overflow ? factory.ofBigDecimal(new BigDecimal(code.subSequence(start, end).toString()))
+                    : factory.ofLong(mantissa);
+        int power = exponent(code, position + 1, end) - scale;
+        if (!overflow && mantissa <= MAX_EXACT_MANTISSA && Math.abs(power) < POWERS_OF_TEN.length)
+            return factory.ofDouble(power >= 0 ? mantissa * POWERS_OF_TEN[power] : mantissa / POWERS_OF_TEN[-power]);
+        return factory.ofDouble(Double.parseDouble(code.subSequence(start, end).toString()));
+    }
+
+    private static int exponent(CharSequence code, int position, int end) {
+        if (position >= end)
+            return 0;
+        boolean negative = code.charAt(position) == '-';
+        if (code.charAt(position) == '+' || negative)
+            position++;
+        int exponent = 0;
+        for (; position < end; position++)
+            exponent = Math.min(exponent * 10 + code.charAt(position) - '0', 100000);
+        return negative ? -exponent : exponent;
+    }
+
+    public interface Factory<N> {
+        N ofLong(long value);
+
+        N ofDouble(double value);
+
+        N ofBigDecimal(BigDecimal value);
+    }
+}
@@ -1,8 +1,24 @@
 package com.github.leeonky.interpreter;
 
+import java.util.Optional;
+
 public interface ObjectParser<P extends Procedure<?, ?, ?, ?>, T> extends Parser<P, ObjectParser<P, T>,
         ObjectParser.Mandatory<P, T>, T> {
 
+    static <P extends Procedure<?, ?, ?, ?>, T> ObjectParser<P, T> nullable(Parser.Nullable<P, T> parser) {
+        return new ObjectParser<P, T>() {
+            @Override
+            public Optional<T> parse(P procedure) {
+                return Optional.ofNullable(parser.parseOrNull(procedure));
+            }
+
+            @Override
+            public T parseOrNull(P procedure) {
+                return parser.parseOrNull(procedure);
+            }
+        };
+    }
+
     @Override
     default ObjectParser<P, T> castParser(Parser<P, ObjectParser<P, T>, Mandatory<P, T>, T> parser) {
         return parser::parse;
@@ -13,6 +29,11 @@ public interface ObjectParser<P extends Procedure<?, ?, ?, ?>, T> extends Parser
         return mandatory::parse;
     }
 
+    @Override
+    default ObjectParser<P, T> castNullable(Parser.Nullable<P, T> parser) {
+        return nullable(parser);
+    }
+
     interface Mandatory<P extends Procedure<?, ?, ?, ?>, T> extends Parser.Mandatory<P, ObjectParser<P, T>,
             ObjectParser.Mandatory<P, T>, T> {
 
@@ -25,5 +46,10 @@ public interface ObjectParser<P extends Procedure<?, ?, ?, ?>, T> extends Parser
         default Mandatory<P, T> castMandatory(Parser.Mandatory<P, ObjectParser<P, T>, Mandatory<P, T>, T> mandatory) {
             return mandatory::parse;
         }
+
+        @Override
+        default ObjectParser<P, T> castNullable(Parser.Nullable<P, T> parser) {
+            return nullable(parser);
+        }
     }
 }
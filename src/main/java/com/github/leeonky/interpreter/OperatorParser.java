@@ -1,9 +1,27 @@
 package com.github.leeonky.interpreter;
 
+import java.util.Optional;
+
 public interface OperatorParser<C extends RuntimeContext, N extends Node<C, N>,
         O extends Operator<C, N, O, E>, P extends Procedure<C, N, E, O>, E extends Expression<C, N, E, O>>
         extends Parser<P, OperatorParser<C, N, O, P, E>, OperatorParser.Mandatory<C, N, O, P, E>, O> {
 
+    static <C extends RuntimeContext, N extends Node<C, N>, O extends Operator<C, N, O, E>,
+            P extends Procedure<C, N, E, O>, E extends Expression<C, N, E, O>> OperatorParser<C, N, O, P, E> nullable(
+            Parser.Nullable<P, O> parser) {
+        return new OperatorParser<C, N, O, P, E>() {
+            @Override
+            public Optional<O> parse(P procedure) {
+                return Optional.ofNullable(parser.parseOrNull(procedure));
+            }
+
+            @Override
+            public O parseOrNull(P procedure) {
+                return parser.parseOrNull(procedure);
+            }
+        };
+    }
+
     @Override
     default Mandatory<C, N, O, P, E> castMandatory(Parser.Mandatory<P, OperatorParser<C, N, O, P, E>,
             Mandatory<C, N, O, P, E>, O> mandatory) {
@@ -16,22 +34,43 @@ public interface OperatorParser<C extends RuntimeContext, N extends Node<C, N>,
         return parser::parse;
     }
 
+    @Override
+    default OperatorParser<C, N, O, P, E> castNullable(Parser.Nullable<P, O> parser) {
+        return nullable(parser);
+    }
+
     default ClauseParser<N, P> clause(NodeParser.Mandatory<N, P> nodeFactory) {
-        return procedure -> parse(procedure).map(operator -> procedure.underOperator(operator, () -> {
-            N right = nodeFactory.parse(procedure);
-            return left -> procedure.createExpression(left, operator, right);
-        }));
+        return ClauseParser.nullable(procedure -> {
+            O operator = parseOrNull(procedure);
+            if (operator == null)
+                return null;
+            return procedure.underOperator(operator, () -> {
+                N right = nodeFactory.parse(procedure);
+                return left -> procedure.buildExpression(left, operator, right);
+            });
+        });
     }
 
     default ClauseParser<N, P> clause(NodeParser<N, P> nodeParser) {
-        return procedure -> procedure.getSourceCode().tryFetch(() -> parse(procedure).map(operator ->
-                procedure.underOperator(operator, () -> nodeParser.parse(procedure).<Clause<N>>map(n ->
-                        left -> procedure.createExpression(left, operator, n)).orElse(null))));
+        return ClauseParser.nullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() -> {
+            O operator = parseOrNull(procedure);
+            if (operator == null)
+                return null;
+            return procedure.underOperator(operator, () -> {
+                N right = nodeParser.parseOrNull(procedure);
+                return right == null ? null : (Clause<N>) left -> procedure.buildExpression(left, operator, right);
+            });
+        }));
     }
 
     default NodeParser<N, P> unary(NodeParser.Mandatory<N, P> nodeFactory) {
-        return procedure -> parse(procedure).map(operator -> procedure.underOperator(operator, () ->
-                procedure.createExpression(null, operator, nodeFactory.parse(procedure))));
+        return NodeParser.nullable(procedure -> {
+            O operator = parseOrNull(procedure);
+            if (operator == null)
+                return null;
+            return procedure.underOperator(operator, () ->
+                    procedure.buildExpression(null, operator, nodeFactory.parse(procedure)));
+        });
     }
 
     interface Mandatory<C extends RuntimeContext, N extends Node<C, N>, O extends Operator<C, N, O, E>,
@@ -50,12 +89,17 @@ public interface OperatorParser<C extends RuntimeContext, N extends Node<C, N>,
             return mandatory::parse;
         }
 
+        @Override
+        default OperatorParser<C, N, O, P, E> castNullable(Parser.Nullable<P, O> parser) {
+            return nullable(parser);
+        }
+
         default ClauseParser.Mandatory<N, P> clause(NodeParser.Mandatory<N, P> nodeFactory) {
             return procedure -> {
                 O operator = parse(procedure);
                 return procedure.underOperator(operator, () -> {
                     N right = nodeFactory.parse(procedure);
-                    return left -> procedure.createExpression(left, operator, right);
+                    return left -> procedure.buildExpression(left, operator, right);
                 });
             };
         }
@@ -0,0 +1,106 @@
+package com.github.leeonky.interpreter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.github.leeonky.interpreter.ParseLimitException.Limit.*;
+
+public class ParseBudget {
+    private static final int CLOCK_CHECK_INTERVAL = 1024;
+    private long maxSteps = Long.MAX_VALUE;
+    private int maxDepth = Integer.MAX_VALUE;
+    private long deadline = 0;
+    private boolean hasDeadline = false;
+    private BooleanSupplier cancelled = () -> false;
+    private long steps = 0;
+    private int depth = 0;
+    private int untilClockCheck = CLOCK_CHECK_INTERVAL;
+    private volatile boolean interrupted = false;
+
+    public static ParseBudget budget() {
+        return new ParseBudget();
+    }
+
+    public ParseBudget maxSteps(long maxSteps) {
+        this.maxSteps = maxSteps;
+        return this;
+    }
+
+    public ParseBudget maxDepth(int maxDepth) {
+        this.maxDepth = maxDepth;
+        return this;
+    }
+
+    public ParseBudget timeout(long timeout, TimeUnit unit) {
+        return deadline(System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    public ParseBudget deadline(long nanoTime) {
+        deadline = nanoTime;
+        hasDeadline = true;
+        return this;
+    }
+
+    public ParseBudget cancelWhen(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+        return this;
+    }
+
+    public long getSteps() {
+        return steps;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    void step(int position) {
+        consume(1, position);
+    }
+
+    void rewind(int distance, int position) {
+        consume(distance, position);
+    }
+
+    private void consume(long count, int position) {
+        if ((steps += count) > maxSteps)
+            throw new ParseLimitException(STEPS, "Parse step budget exceeded", position);
+        if (--untilClockCheck <= 0) {
+            untilClockCheck = CLOCK_CHECK_INTERVAL;
+            if (interrupted || cancelled.getAsBoolean())
+                throw new ParseLimitException(CANCELLED, "Parse cancelled", position);
+            if (hasDeadline && System.nanoTime() - deadline > 0)
+                throw new ParseLimitException(DEADLINE, "Parse deadline exceeded", position);
+        }
+    }
+
+    void enter(int position) {
+        step(position);
+        if (depth >= maxDepth)
+            throw new ParseLimitException(DEPTH, "Parse nesting too deep", position);
+        depth++;
+    }
+
+    void exit() {
+        depth--;
+    }
+
+    void interrupt() {
+        interrupted = true;
+    }
+
+    ParseBudget fork() {
+        ParseBudget budget = new ParseBudget();
+        budget.maxSteps = maxSteps - steps;
+        budget.maxDepth = maxDepth;
+        budget.depth = depth;
+        budget.deadline = deadline;
+        budget.hasDeadline = hasDeadline;
+        budget.cancelled = () -> interrupted || cancelled.getAsBoolean();
+        return budget;
+    }
+
+    void join(ParseBudget fork, int position) {
+        consume(fork.steps, position);
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Arrays;
+
+class ParseEvents<N extends Node<?, N>, O extends Operator<?, N, O, ?>> {
+    private static final int START = 0, TOKEN = 1, OPERATOR = 2, UNARY = 3, CLAUSE = 4, END = 5;
+    private final ParseListener<N, O> listener;
+    private int[] kinds = new int[64], positions = new int[64];
+    private Object[] values = new Object[64];
+    private int size, holds;
+
+    ParseEvents(ParseListener<N, O> listener) {
+        this.listener = listener;
+    }
+
+    int hold() {
+        holds++;
+        return size;
+    }
+
+    void release() {
+        if (--holds == 0) {
+            for (int i = 0; i < size; i++)
+                deliver(kinds[i], values[i], positions[i]);
+            rollback(0);
+        }
+    }
+
+    void rollback(int mark) {
+        Arrays.fill(values, mark, size, null);
+        size = mark;
+    }
+
+    void startNode(int position) {
+        add(START, null, position);
+    }
+
+    void token(Token token) {
+        add(TOKEN, token, token.getPosition());
+    }
+
+    void operator(O operator, boolean unary) {
+        add(unary ? UNARY : OPERATOR, operator, operator.getPosition());
+    }
+
+    void clause(Token token) {
+        add(CLAUSE, token, token.getPosition());
+    }
+
+    void endNode(int position) {
+        add(END, null, position);
+    }
+
+    private void add(int kind, Object value, int position) {
+        if (holds == 0) {
+            deliver(kind, value, position);
+            return;
+        }
+        if (size == kinds.length) {
+            kinds = Arrays.copyOf(kinds, size * 2);
+            positions = Arrays.copyOf(positions, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        kinds[size] = kind;
+        positions[size] = position;
+        values[size++] = value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void deliver(int kind, Object value, int position) {
+        switch (kind) {
+            case START:
+                listener.startNode(position);
+                break;
+            case TOKEN:
+                listener.token((Token) value);
+                break;
+            case OPERATOR:
+                listener.operator((O) value, false, position);
+                break;
+            case UNARY:
+                listener.operator((O) value, true, position);
+                break;
+            case CLAUSE:
+                listener.clause((Token) value);
+                break;
+            default:
+                listener.endNode(position);
+        }
+    }
+}
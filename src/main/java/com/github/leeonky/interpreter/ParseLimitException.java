@@ -0,0 +1,18 @@
+package com.github.leeonky.interpreter;
+
+public class ParseLimitException extends InterpreterException {
+    private final Limit limit;
+
+    public ParseLimitException(Limit limit, String message, int position) {
+        super(message, position);
+        this.limit = limit;
+    }
+
+    public Limit getLimit() {
+        return limit;
+    }
+
+    public enum Limit {
+        STEPS, DEPTH, DEADLINE, CANCELLED
+    }
+}
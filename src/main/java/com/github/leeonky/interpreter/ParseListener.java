@@ -0,0 +1,13 @@
+package com.github.leeonky.interpreter;
+
+public interface ParseListener<N extends Node<?, N>, O extends Operator<?, N, O, ?>> {
+    void startNode(int position);
+
+    void token(Token token);
+
+    void operator(O operator, boolean unary, int position);
+
+    void clause(Token token);
+
+    void endNode(int position);
+}
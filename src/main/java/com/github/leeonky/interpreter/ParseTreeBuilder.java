@@ -0,0 +1,61 @@
+package com.github.leeonky.interpreter;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class ParseTreeBuilder<C extends RuntimeContext, N extends Node<C, N>, E extends Expression<C, N, E, O>,
+        O extends Operator<C, N, O, E>> implements ParseListener<N, O> {
+    private final Procedure<C, N, E, O> procedure;
+    private final Function<Token, N> tokenFactory;
+    private final Function<List<N>, N> nodeFactory;
+    private final BiFunction<Token, N, N> clauseFactory;
+    private final LinkedList<List<N>> frames = new LinkedList<>();
+
+    public ParseTreeBuilder(Procedure<C, N, E, O> procedure, Function<Token, N> tokenFactory,
+                            Function<List<N>, N> nodeFactory, BiFunction<Token, N, N> clauseFactory) {
+        this.procedure = procedure;
+        this.tokenFactory = tokenFactory;
+        this.nodeFactory = nodeFactory;
+        this.clauseFactory = clauseFactory;
+        frames.push(new ArrayList<>());
+    }
+
+    @Override
+    public void startNode(int position) {
+        frames.push(new ArrayList<>());
+    }
+
+    @Override
+    public void token(Token token) {
+        frames.peek().add(tokenFactory.apply(token).setPositionBegin(token.getPosition()));
+    }
+
+    @Override
+    public void operator(O operator, boolean unary, int position) {
+        N right = pop();
+        frames.peek().add(procedure.createExpression(unary ? null : pop(), operator, right));
+    }
+
+    @Override
+    public void clause(Token token) {
+        frames.peek().add(clauseFactory.apply(token, pop()).setPositionBegin(token.getPosition()));
+    }
+
+    @Override
+    public void endNode(int position) {
+        List<N> children = frames.pop();
+        frames.peek().add(nodeFactory.apply(children));
+    }
+
+    public List<N> getNodes() {
+        return frames.getLast();
+    }
+
+    private N pop() {
+        List<N> frame = frames.peek();
+        return frame.remove(frame.size() - 1);
+    }
+}
@@ -1,64 +1,183 @@
 package com.github.leeonky.interpreter;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
-import java.util.stream.Stream;
-
-import static java.util.Optional.empty;
 
 public interface Parser<P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
         MA extends Parser.Mandatory<P, PA, MA, T>, T> extends MapAble<PA, T> {
 
     @Override
     default PA map(UnaryOperator<T> mapper) {
-        return castParser(procedure -> parse(procedure).map(mapper));
+        return castNullable(procedure -> {
+            T t = parseOrNull(procedure);
+            return t == null ? null : mapper.apply(t);
+        });
     }
 
     @SuppressWarnings("unchecked")
     static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
             MA extends Parser.Mandatory<P, PA, MA, T>, T> PA oneOf(PA... parsers) {
-        return parsers[0].castParser(procedure -> Stream.of(parsers).map(parser -> parser.parse(procedure)).
-                filter(Optional::isPresent).findFirst().orElse(empty()));
+        return oneOf(Arrays.asList(parsers));
+    }
+
+    static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> PA oneOf(List<PA> parsers) {
+        return parsers.get(0).castNullable(procedure -> {
+            for (int i = 0; i < parsers.size(); i++) {
+                T t = parsers.get(i).parseOrNull(procedure);
+                if (t != null)
+                    return t;
+            }
+            return null;
+        });
+    }
+
+    @SafeVarargs
+    static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> PA oneOf(Alternative<P, PA, MA, T>... alternatives) {
+        List<Alternative<P, PA, MA, T>> list = new ArrayList<>(alternatives.length);
+        for (Alternative<P, PA, MA, T> alternative : alternatives)
+            list.add(alternative);
+        List<PA> parsers = Alternative.factor(list);
+        return parsers.size() == 1 ? parsers.get(0) : oneOf(parsers);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> PA adaptiveOneOf(PA... parsers) {
+        AdaptiveOrder adaptiveOrder = new AdaptiveOrder(parsers.length);
+        return parsers[0].castNullable(procedure -> {
+            for (int index : adaptiveOrder.order()) {
+                T t = parsers[index].parseOrNull(procedure);
+                if (t != null) {
+                    adaptiveOrder.hit(index);
+                    return t;
+                }
+            }
+            return null;
+        });
     }
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> ClauseParser<N, P> lazyClause(
             Supplier<ClauseParser<N, P>> parser) {
-        return procedure -> parser.get().parse(procedure);
+        return new ClauseParser<N, P>() {
+            @Override
+            public Optional<Clause<N>> parse(P procedure) {
+                return procedure.nested(() -> parser.get().parse(procedure));
+            }
+
+            @Override
+            public Clause<N> parseOrNull(P procedure) {
+                return procedure.nested(() -> parser.get().parseOrNull(procedure));
+            }
+        };
     }
 
     static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>> NodeParser<N, P> lazyNode(
             Supplier<NodeParser<N, P>> parser) {
-        return procedure -> parser.get().parse(procedure);
+        return new NodeParser<N, P>() {
+            @Override
+            public Optional<N> parse(P procedure) {
+                return procedure.nested(() -> parser.get().parse(procedure));
+            }
+
+            @Override
+            public N parseOrNull(P procedure) {
+                return procedure.nested(() -> parser.get().parseOrNull(procedure));
+            }
+        };
     }
 
     Optional<T> parse(P procedure);
 
+    default T parseOrNull(P procedure) {
+        return parse(procedure).orElse(null);
+    }
+
     default PA castParser(Parser<P, PA, MA, T> parser) {
         throw new IllegalStateException();
     }
 
+    default PA castNullable(Nullable<P, T> parser) {
+        throw new IllegalStateException();
+    }
+
     default MA castMandatory(Parser.Mandatory<P, PA, MA, T> mandatory) {
         throw new IllegalStateException();
     }
 
     default MA or(MA mandatory) {
-        return castMandatory(procedure -> parse(procedure).orElseGet(() -> mandatory.parse(procedure)));
+        return castMandatory(procedure -> {
+            T t = parseOrNull(procedure);
+            return t != null ? t : mandatory.parse(procedure);
+        });
     }
 
     default MA mandatory(String message) {
-        return castMandatory(procedure -> parse(procedure)
-                .orElseThrow(() -> procedure.getSourceCode().syntaxError(message, 0)));
+        return castMandatory(procedure -> {
+            T t = parseOrNull(procedure);
+            if (t == null)
+                throw procedure.getSourceCode().syntaxError(message, 0);
+            return t;
+        });
+    }
+
+    default MA mandatoryAtFurthest(String message) {
+        return castMandatory(procedure -> {
+            T t = parseOrNull(procedure);
+            if (t == null)
+                throw procedure.getSourceCode().furthestSyntaxError(message);
+            return t;
+        });
+    }
+
+    default PA expecting(String label) {
+        return castNullable(procedure -> procedure.getSourceCode().expectingOrNull(label,
+                () -> parseOrNull(procedure)));
+    }
+
+    default PA rule(String name) {
+        return castNullable(procedure -> procedure.getSourceCode().rule(name, () -> parseOrNull(procedure)));
+    }
+
+    default PA cut(String message) {
+        return castNullable(procedure -> {
+            procedure.getSourceCode().cut(message);
+            return parseOrNull(procedure);
+        });
+    }
+
+    default PA followedBy(Notation<?, ?, ?, P, ?> notation) {
+        return castNullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() -> {
+            T t = parseOrNull(procedure);
+            return t != null && procedure.getSourceCode().startsWith(notation) ? t : null;
+        }));
+    }
+
+    default PA notFollowedBy(Notation<?, ?, ?, P, ?> notation) {
+        return castNullable(procedure -> procedure.getSourceCode().tryFetchOrNull(() -> {
+            T t = parseOrNull(procedure);
+            return t != null && !procedure.getSourceCode().startsWith(notation) ? t : null;
+        }));
     }
 
     default PA notStartWith(Notation<?, ?, ?, P, ?> notation) {
-        return castParser(procedure -> {
+        return castNullable(procedure -> {
             if (procedure.getSourceCode().startsWith(notation))
-                return empty();
-            return parse(procedure);
+                return null;
+            return parseOrNull(procedure);
         });
     }
 
+    @FunctionalInterface
+    interface Nullable<P extends Procedure<?, ?, ?, ?>, T> {
+        T parseOrNull(P procedure);
+    }
+
     interface Mandatory<P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA, MA, T>,
             MA extends Mandatory<P, PA, MA, T>, T> extends MapAble<MA, T> {
 
@@ -70,8 +189,16 @@ public interface Parser<P extends Procedure<?, ?, ?, ?>, PA extends Parser<P, PA
             throw new IllegalStateException();
         }
 
+        default PA castNullable(Nullable<P, T> parser) {
+            throw new IllegalStateException();
+        }
+
         T parse(P procedure);
 
+        default MA rule(String name) {
+            return castMandatory(procedure -> procedure.getSourceCode().rule(name, () -> parse(procedure)));
+        }
+
         @Override
         default MA map(UnaryOperator<T> mapper) {
             return castMandatory(procedure -> mapper.apply(parse(procedure)));
@@ -1,18 +1,35 @@
 package com.github.leeonky.interpreter;
 
+import java.util.ArrayList;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 public abstract class Procedure<C extends RuntimeContext, N extends Node<C, N>, E extends Expression<C, N, E, O>,
         O extends Operator<C, N, O, E>> {
 
+    private static final long CARRIER_KEEP_ALIVE_SECONDS = 1;
     private final SourceCode sourceCode;
     private final C runtimeContext;
     private final LinkedList<O> operators = new LinkedList<>();
     private final LinkedList<AtomicInteger> columns = new LinkedList<>();
+    private N validationNode = null;
+    private int stackSegmentDepth = 0;
+    private long stackSegmentSize = 0;
+    private int segmentBase = 0, segmentLevel = 0;
+    private final List<ExecutorService> carriers = new ArrayList<>();
+    private SymbolTable symbols;
+    private ParseEvents<N, O> events;
 
     public Procedure(SourceCode sourceCode, C runtimeContext) {
         this.sourceCode = sourceCode;
@@ -37,7 +54,11 @@ public abstract class Procedure<C extends RuntimeContext, N extends Node<C, N>,
     }
 
     public <T> T withColumn(Supplier<T> action) {
-        columns.push(new AtomicInteger());
+        return withColumn(0, action);
+    }
+
+    public <T> T withColumn(int column, Supplier<T> action) {
+        columns.push(new AtomicInteger(column));
         try {
             return action.get();
         } finally {
@@ -45,6 +66,113 @@ public abstract class Procedure<C extends RuntimeContext, N extends Node<C, N>,
         }
     }
 
+    public <T> T nested(Supplier<T> action) {
+        ParseBudget budget = sourceCode.getBudget();
+        budget.enter(sourceCode.chars().position());
+        try {
+            if (stackSegmentDepth > 0 && budget.getDepth() - segmentBase >= stackSegmentDepth)
+                return onNewStack(action, budget);
+            return action.get();
+        } finally {
+            budget.exit();
+        }
+    }
+
+    /**
+     * Continues parsing on a new platform thread with the given stack size every time the nesting depth grows by
+     * {@code everyDepth}. The threads are pooled per segment level and stop after being idle for a second.
+     */
+    public void segmentStack(int everyDepth, long stackSize) {
+        stackSegmentDepth = everyDepth;
+        stackSegmentSize = stackSize;
+    }
+
+    private <T> T onNewStack(Supplier<T> action, ParseBudget budget) {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+        int base = segmentBase;
+        segmentBase = budget.getDepth();
+        try {
+            carrier(segmentLevel++).execute(() -> {
+                try {
+                    result.set(action.get());
+                } catch (Throwable e) {
+                    error.set(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+            awaitSegment(done, budget);
+        } finally {
+            segmentLevel--;
+            segmentBase = base;
+        }
+        if (error.get() instanceof RuntimeException)
+            throw (RuntimeException) error.get();
+        if (error.get() instanceof Error)
+            throw (Error) error.get();
+        if (error.get() != null)
+            throw new IllegalStateException(error.get());
+        return result.get();
+    }
+
+    private ExecutorService carrier(int level) {
+        if (level == carriers.size()) {
+            ThreadPoolExecutor carrier = new ThreadPoolExecutor(1, 1, CARRIER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(null, runnable, "interpreter-stack-segment", stackSegmentSize);
+                thread.setDaemon(true);
+                return thread;
+            });
+            carrier.allowCoreThreadTimeOut(true);
+            carriers.add(carrier);
+        }
+        return carriers.get(level);
+    }
+
+    private static void awaitSegment(CountDownLatch done, ParseBudget budget) {
+        boolean interrupted = false;
+        while (done.getCount() > 0) {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                interrupted = true;
+                budget.interrupt();
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    static <P extends Procedure<?, ?, ?, ?>> P fork(P procedure, Function<SourceCode, P> procedureFactory,
+                                                    int position) {
+        P fork = procedureFactory.apply(procedure.getSourceCode().fork(position));
+        fork.inherit(procedure);
+        return fork;
+    }
+
+    void inherit(Procedure<?, ?, ?, ?> procedure) {
+        symbols = procedure.getSymbols();
+        stackSegmentDepth = procedure.stackSegmentDepth;
+        stackSegmentSize = procedure.stackSegmentSize;
+        segmentBase = sourceCode.getBudget().getDepth();
+    }
+
+    public void setBudget(ParseBudget budget) {
+        sourceCode.setBudget(budget);
+    }
+
+    public SymbolTable getSymbols() {
+        if (symbols == null)
+            symbols = new SymbolTable();
+        return symbols;
+    }
+
+    public void setSymbols(SymbolTable symbols) {
+        this.symbols = symbols;
+    }
+
     public int getColumn() {
         return columns.getFirst().get();
     }
@@ -55,10 +183,77 @@ public abstract class Procedure<C extends RuntimeContext, N extends Node<C, N>,
 
     public abstract N createExpression(N node1, O operator, N node2);
 
+    public N buildExpression(N node1, O operator, N node2) {
+        if (events != null)
+            events.operator(operator, node1 == null);
+        return validationNode != null ? validationNode : createExpression(node1, operator, node2);
+    }
+
+    public <A> N createNode(Function<A, N> factory, A argument) {
+        return validationNode != null ? validationNode : factory.apply(argument);
+    }
+
+    public void listen(ParseListener<N, O> listener) {
+        events = new ParseEvents<>(listener);
+        sourceCode.setEvents(events);
+    }
+
+    public void listen(ParseListener<N, O> listener, N placeholder) {
+        listen(listener);
+        validationMode(placeholder);
+    }
+
+    boolean isListening() {
+        return events != null;
+    }
+
+    void emitToken(Token token) {
+        if (events != null)
+            events.token(token);
+    }
+
+    void emitClause(Token token) {
+        if (events != null)
+            events.clause(token);
+    }
+
+    N node(Supplier<N> node) {
+        if (events == null)
+            return node.get();
+        int mark = events.hold();
+        events.startNode(sourceCode.codePosition());
+        try {
+            N t = node.get();
+            if (t != null)
+                events.endNode(sourceCode.chars().position());
+            else
+                events.rollback(mark);
+            return t;
+        } finally {
+            events.release();
+        }
+    }
+
+    public void validationMode(N sentinel) {
+        validationNode = sentinel;
+    }
+
+    public boolean isValidationMode() {
+        return validationNode != null;
+    }
+
+    public N getValidationNode() {
+        return validationNode;
+    }
+
     public C getRuntimeContext() {
         return runtimeContext;
     }
 
+    public FurthestFailure getFurthestFailure() {
+        return sourceCode.getFurthestFailure();
+    }
+
     public Optional<O> currentOperator() {
         return operators.stream().findFirst();
     }
@@ -0,0 +1,58 @@
+package com.github.leeonky.interpreter;
+
+import java.util.List;
+import java.util.function.Function;
+
+public class ResumableParse<T> implements AutoCloseable {
+    private final InputFeed feed = new InputFeed();
+    private boolean needsMoreInput;
+    private T result;
+    private Throwable error;
+
+    public ResumableParse(List<Notation<?, ?, ?, ?, ?>> lineComments, Function<SourceCode, T> parse) {
+        Thread parser = new Thread(() -> {
+            try {
+                result = parse.apply(new SourceCode(feed, lineComments));
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                feed.done();
+            }
+        }, "resumable-parse");
+        parser.setDaemon(true);
+        parser.start();
+        needsMoreInput = feed.awaitParser();
+    }
+
+    public ResumableParse<T> append(String chunk) {
+        if (error != null)
+            throw new IllegalStateException("Parse already failed", error);
+        feed.append(chunk);
+        needsMoreInput = feed.awaitParser();
+        return this;
+    }
+
+    public boolean needsMoreInput() {
+        return needsMoreInput;
+    }
+
+    public void cancel() {
+        feed.cancel();
+        needsMoreInput = feed.awaitParser();
+    }
+
+    @Override
+    public void close() {
+        cancel();
+    }
+
+    public T finish() {
+        feed.finish();
+        needsMoreInput = feed.awaitParser();
+        if (error instanceof RuntimeException)
+            throw (RuntimeException) error;
+        if (error instanceof Error)
+            throw (Error) error;
+        return result;
+    }
+}
@@ -8,7 +8,6 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
-import static com.github.leeonky.util.function.When.when;
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.joining;
@@ -92,7 +91,7 @@ public class Rules {
         return syntax -> new CompositeSyntax<N, P, PA, MA, T, R, A>(syntax) {
             @Override
             public boolean isSplitter(P procedure) {
-                return procedure.getSourceCode().popWord(notation).isPresent();
+                return procedure.getSourceCode().skipWord(notation);
             }
         };
     }
@@ -113,7 +112,7 @@ public class Rules {
         return syntax -> new CompositeSyntax<N, P, PA, MA, T, R, A>(syntax) {
             @Override
             public boolean isSplitter(P procedure) {
-                procedure.getSourceCode().popWord(splitter);
+                procedure.getSourceCode().skipWord(splitter);
                 return true;
             }
         };
@@ -125,7 +124,7 @@ public class Rules {
         return syntax -> new CompositeSyntax<N, P, PA, MA, T, R, A>(syntax) {
             @Override
             public boolean isSplitter(P procedure) {
-                if (procedure.getSourceCode().popWord(splitter).isPresent())
+                if (procedure.getSourceCode().skipWord(splitter))
                     return true;
                 throw procedure.getSourceCode().syntaxError(format("Should end with `%s`", splitter.getLabel()), 0);
             }
@@ -141,10 +140,13 @@ public class Rules {
             @Override
             protected NodeParser<N, P> parse(Syntax<N, P, PA, MA, T, NodeParser<N, P>, List<T>> syntax,
                                              Function<List<T>, N> factory) {
-                return procedure -> procedure.getSourceCode().tryFetch(() -> {
-                    List<T> list = parser.apply(procedure, syntax);
-                    return when(list.size() >= size).optional(() -> factory.apply(list));
-                });
+                return NodeParser.gated(gate -> procedure -> procedure.node(() ->
+                        procedure.getSourceCode().tryFetchOrNull(() -> {
+                            List<T> list = parser.apply(procedure, syntax);
+                            if (list.size() < size || !gate.test(procedure))
+                                return null;
+                            return procedure.createNode(factory, list);
+                        })));
             }
         };
     }
@@ -157,9 +159,31 @@ public class Rules {
             @Override
             protected NodeParser<N, P> parse(Syntax<N, P, PA, MA, T, NodeParser<N, P>, A> syntax,
                                              Function<A, N> factory) {
-                NodeParser<N, P> nodeParser = super.parse(syntax, factory);
-                return procedure -> procedure.getSourceCode().tryFetch(() -> nodeParser.parse(procedure).map(node ->
-                        procedure.getSourceCode().startsWith(notation) ? node : null));
+                return super.parse(syntax, factory).followedBy(notation);
+            }
+        };
+    }
+
+    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T, A> Function<Syntax<N, P, PA, MA, T,
+            NodeParser.Mandatory<N, P>, A>, Syntax<N, P, PA, MA, T, NodeParser.Mandatory<N, P>, A>> lazy(
+            String opening, String closing, Function<SourceCode, P> procedureFactory,
+            Function<Supplier<N>, N> placeholder) {
+        return syntax -> new CompositeSyntax<N, P, PA, MA, T, NodeParser.Mandatory<N, P>, A>(syntax) {
+
+            @Override
+            protected NodeParser.Mandatory<N, P> parse(Syntax<N, P, PA, MA, T, NodeParser.Mandatory<N, P>, A> syntax,
+                                                       Function<A, N> factory) {
+                NodeParser.Mandatory<N, P> mandatory = super.parse(syntax, factory);
+                return procedure -> {
+                    if (procedure.isValidationMode() || procedure.isListening())
+                        return mandatory.parse(procedure);
+                    SourceCode sourceCode = procedure.getSourceCode();
+                    int position = sourceCode.chars().position();
+                    sourceCode.skipBlock(opening, closing);
+                    return placeholder.apply(new Memoized<>(() ->
+                            mandatory.parse(Procedure.fork(procedure, procedureFactory, position))));
+                };
             }
         };
     }
@@ -170,6 +194,27 @@ public class Rules {
         return syntax -> new EndOFRow<>(syntax, splitter);
     }
 
+    private static class Memoized<T> implements Supplier<T> {
+        private Supplier<T> supplier;
+        private volatile T value;
+
+        private Memoized(Supplier<T> supplier) {
+            this.supplier = supplier;
+        }
+
+        @Override
+        public T get() {
+            if (value == null)
+                synchronized (this) {
+                    if (value == null) {
+                        value = supplier.get();
+                        supplier = null;
+                    }
+                }
+            return value;
+        }
+    }
+
     private static class EndOFRow<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
             MA extends Parser.Mandatory<P, PA, MA, T>, T, R, A> extends CompositeSyntax<N, P, PA, MA, T, R, A> {
         private final Notation<?, N, ?, P, ?> splitter;
@@ -184,12 +229,7 @@ public class Rules {
         @Override
         public boolean isClose(P procedure) {
             return isClose = endOfLineOrNoCode(procedure.getSourceCode())
-                    || hasNewLineBeforeSplitter(procedure.getSourceCode());
-        }
-
-        private boolean hasNewLineBeforeSplitter(SourceCode sourceCode) {
-            String code = sourceCode.codeBefore(splitter);
-            return code.contains("\r") || code.contains("\n");
+                    || procedure.getSourceCode().hasNewlineBefore(splitter);
         }
 
         private boolean endOfLineOrNoCode(SourceCode sourceCode) {
@@ -1,28 +1,108 @@
 package com.github.leeonky.interpreter;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
-
-import static com.github.leeonky.util.function.When.when;
+import java.util.stream.IntStream;
 
 public class SourceCode {
     private final List<Notation<?, ?, ?, ?, ?>> lineComments;
     private final CharStream charStream;
     private final int startPosition;
+    private final FurthestFailure furthestFailure = new FurthestFailure();
+    private ParseBudget budget = ParseBudget.budget();
+    private StructuralIndex structure;
+    private LexedCode lexed;
+    private int fetchDepth = 0, committedDepth = 0, streamed = 0;
+    private String cutMessage;
+    private BacktrackAnalyzer analyzer;
+    private ParseEvents<?, ?> events;
 
     public SourceCode(String code, List<Notation<?, ?, ?, ?, ?>> lineComments) {
+        this(code, lineComments, 0);
+    }
+
+    private SourceCode(String code, List<Notation<?, ?, ?, ?, ?>> lineComments, int position) {
         charStream = new CharStream(code);
+        charStream.position = position;
+        this.lineComments = lineComments;
+        trimBlankAndComment();
+        startPosition = charStream.position();
+    }
+
+    SourceCode(InputFeed feed, List<Notation<?, ?, ?, ?, ?>> lineComments) {
+        charStream = new CharStream(feed);
         this.lineComments = lineComments;
         trimBlankAndComment();
         startPosition = charStream.position();
     }
 
+    public SourceCode fork(int position) {
+        SourceCode sourceCode = new SourceCode(charStream.getCode(), lineComments, position);
+        sourceCode.structure = structure;
+        sourceCode.lexed = lexed;
+        sourceCode.budget = budget.fork();
+        return sourceCode;
+    }
+
+    public SourceCode lex(Collection<? extends Notation<?, ?, ?, ?, ?>> notations) {
+        lexed = LexedCode.lex(charStream.getCode(), lineComments, notations);
+        return this;
+    }
+
+    public LexedCode lexed() {
+        return lexed;
+    }
+
+    public StructuralIndex structure() {
+        if (structure == null)
+            structure = StructuralIndex.build(charStream.getCode(), lineComments);
+        return structure;
+    }
+
+    int[] linesStartWith(String label) {
+        StructuralIndex structure = structure();
+        int position = nextPosition();
+        IntStream.Builder starts = IntStream.builder();
+        for (int line = structure.lineOf(position); line < structure.lineCount(); line++) {
+            if (structure.indent(line) == -1)
+                continue;
+            int start = Math.max(position, structure.lineStart(line) + structure.indent(line));
+            if (!charStream.startsWithAt(label, start))
+                break;
+            starts.add(start);
+        }
+        return starts.build().toArray();
+    }
+
+    public void skipBlock(String opening, String closing) {
+        int end = blockEnd(opening, closing);
+        if (end == -1)
+            throw new SyntaxException("Should end with `" + closing + "`", charStream.getCode().length());
+        charStream.position = end + closing.length();
+    }
+
+    private int blockEnd(String opening, String closing) {
+        int openingPosition = charStream.position() - opening.length();
+        if (opening.length() == 1 && closing.length() == 1 && openingPosition >= 0 && !charStream.isIncremental()
+                && charStream.getCode().startsWith(opening, openingPosition)) {
+            int end = structure().matching(openingPosition);
+            if (end != -1 && charStream.getCode().charAt(end) == closing.charAt(0))
+                return end;
+        }
+        return charStream.blockEnd(charStream.position(), opening, closing, lineComments);
+    }
+
     private SourceCode trimBlankAndComment() {
-        charStream.trimBlackAndComment(lineComments);
+        if (lexed != null)
+            charStream.position = lexed.skip(charStream.position);
+        else
+            charStream.trimBlackAndComment(lineComments);
         return this;
     }
 
@@ -36,13 +116,19 @@ public class SourceCode {
 
     public boolean startsWith(Notation<?, ?, ?, ?, ?> notation, String... excepts) {
         trimBlankAndComment();
-        return charStream.startsWith(notation.getLabel()) && Arrays.stream(excepts).noneMatch(this::startsWith);
+        return (lexed != null ? lexed.startsWith(charStream.position, notation.getLabel())
+                : charStream.startsWith(notation.getLabel())) && Arrays.stream(excepts).noneMatch(this::startsWith);
     }
 
     public boolean startsWith(String word) {
         return charStream.startsWith(word);
     }
 
+    public boolean endsWord(Notation<?, ?, ?, ?, ?> notation, Keywords delimiters) {
+        int end = notation.length();
+        return !charStream.hasContent(end) || delimiters.startsAt(charStream.text(), charStream.position + end);
+    }
+
     public char popChar(Map<String, Character> escapeChars) {
         return escapeChars.entrySet().stream().filter(e -> charStream.startsWith(e.getKey())).map(e -> {
             charStream.seek(e.getKey().length());
@@ -59,10 +145,14 @@ public class SourceCode {
     }
 
     public Optional<String> popString(String label) {
-        return when(startsWith(label)).optional(() -> {
-            charStream.seek(label.length());
-            return label;
-        });
+        return Optional.ofNullable(popStringOrNull(label));
+    }
+
+    String popStringOrNull(String label) {
+        if (!startsWith(label) && !expect(label))
+            return null;
+        charStream.seek(label.length());
+        return label;
     }
 
     public Optional<Token> popWord(Notation<?, ?, ?, ?, ?> notation) {
@@ -70,12 +160,153 @@ public class SourceCode {
     }
 
     public Optional<Token> popWord(Notation<?, ?, ?, ?, ?> notation, Supplier<Boolean> predicate) {
-        return when(startsWith(notation) && predicate.get())
-                .optional(() -> new Token(charStream.seek(notation.length())).append(notation.getLabel()));
+        return Optional.ofNullable(popWordOrNull(notation, predicate));
+    }
+
+    Token popWordOrNull(Notation<?, ?, ?, ?, ?> notation, Supplier<Boolean> predicate) {
+        if (!(startsWith(notation) || expect(notation.getLabel())) || !predicate.get())
+            return null;
+        return new Token(charStream.seek(notation.length())).append(notation.getLabel());
+    }
+
+    boolean skipWord(Notation<?, ?, ?, ?, ?> notation) {
+        if (!startsWith(notation))
+            return expect(notation.getLabel());
+        charStream.seek(notation.length());
+        return true;
     }
 
     public <N> Optional<N> tryFetch(Supplier<Optional<N>> supplier) {
-        return charStream.tryFetch(supplier);
+        return tryFetch(supplier, Optional::isPresent);
+    }
+
+    public <N> N tryFetchOrNull(Supplier<N> supplier) {
+        return tryFetch(supplier, Objects::nonNull);
+    }
+
+    private <N> N tryFetch(Supplier<N> supplier, Predicate<N> present) {
+        int position = charStream.position();
+        budget.step(position);
+        int committed = committedDepth;
+        String message = cutMessage;
+        int mark = events == null ? 0 : events.hold();
+        fetchDepth++;
+        try {
+            N result = supplier.get();
+            if (!present.test(result)) {
+                if (committedDepth == fetchDepth)
+                    throw furthestSyntaxError(cutMessage);
+                if (position < streamed)
+                    throw furthestSyntaxError("Cannot backtrack over streamed elements");
+                budget.rewind(charStream.position() - position, position);
+                if (analyzer != null)
+                    analyzer.rewind(charStream.position() - position);
+                if (events != null)
+                    events.rollback(mark);
+                charStream.position = position;
+            }
+            return result;
+        } finally {
+            fetchDepth--;
+            committedDepth = committed;
+            cutMessage = message;
+            if (events != null)
+                events.release();
+        }
+    }
+
+    public void cut(String message) {
+        committedDepth = fetchDepth;
+        cutMessage = message;
+    }
+
+    void streamed() {
+        streamed = charStream.position();
+    }
+
+    public ParseBudget getBudget() {
+        return budget;
+    }
+
+    public void setBudget(ParseBudget budget) {
+        this.budget = budget;
+    }
+
+    int step() {
+        budget.step(charStream.position());
+        return charStream.position();
+    }
+
+    void iterated(int from) {
+        if (analyzer != null)
+            analyzer.iterated(from, charStream.position());
+    }
+
+    public BacktrackAnalyzer getAnalyzer() {
+        return analyzer;
+    }
+
+    public void setAnalyzer(BacktrackAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    void setEvents(ParseEvents<?, ?> events) {
+        this.events = events;
+    }
+
+    public <T> T rule(String name, Supplier<T> parse) {
+        if (analyzer == null)
+            return parse.get();
+        analyzer.enter(name, charStream.position());
+        try {
+            return parse.get();
+        } finally {
+            analyzer.exit();
+        }
+    }
+
+    private boolean expect(String label) {
+        furthestFailure.expect(charStream.position(), label);
+        return false;
+    }
+
+    public <N> Optional<N> expecting(String label, Supplier<Optional<N>> supplier) {
+        return expecting(label, supplier, Optional::isPresent);
+    }
+
+    public <N> N expectingOrNull(String label, Supplier<N> supplier) {
+        return expecting(label, supplier, Objects::nonNull);
+    }
+
+    private <N> N expecting(String label, Supplier<N> supplier, Predicate<N> present) {
+        int markPosition = furthestFailure.getPosition(), markSize = furthestFailure.size();
+        int position = charStream.position();
+        N result = supplier.get();
+        if (!present.test(result))
+            furthestFailure.relabel(markPosition, markSize, codePositionFrom(position), label);
+        return result;
+    }
+
+    int codePosition() {
+        return codePositionFrom(charStream.position());
+    }
+
+    private int codePositionFrom(int position) {
+        int current = charStream.position();
+        charStream.position = position;
+        try {
+            return nextPosition();
+        } finally {
+            charStream.position = current;
+        }
+    }
+
+    public FurthestFailure getFurthestFailure() {
+        return furthestFailure;
+    }
+
+    public SyntaxException furthestSyntaxError(String message) {
+        return furthestFailure.syntaxError(message, charStream.position());
     }
 
     public boolean isEndOfLine() {
@@ -90,11 +321,15 @@ public class SourceCode {
         return charStream.contentUntil(notation.getLabel());
     }
 
+    public boolean hasNewlineBefore(Notation<?, ?, ?, ?, ?> notation) {
+        return charStream.newlineBefore(notation.getLabel());
+    }
+
     public int nextPosition() {
         return trimBlankAndComment().charStream.position();
     }
 
-    public Token fetchToken(boolean trimStart, TriplePredicate<String, Integer, Integer> endsWith) {
+    public Token fetchToken(boolean trimStart, TriplePredicate<CharSequence, Integer, Integer> endsWith) {
         Token token = new Token(charStream.position());
         if (trimStart) {
             charStream.popChar();
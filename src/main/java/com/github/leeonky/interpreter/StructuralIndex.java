@@ -0,0 +1,115 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class StructuralIndex {
+    private static final String OPENINGS = "([{";
+    private static final String CLOSINGS = ")]}";
+    private final int length;
+    private final int[] matching;
+    private final int[] lineStarts;
+    private final int[] indents;
+
+    private StructuralIndex(int length, int[] matching, int[] lineStarts, int[] indents) {
+        this.length = length;
+        this.matching = matching;
+        this.lineStarts = lineStarts;
+        this.indents = indents;
+    }
+
+    public static StructuralIndex build(String code, List<Notation<?, ?, ?, ?, ?>> comments) {
+        int[] matching = new int[code.length()];
+        Arrays.fill(matching, -1);
+        int[] brackets = new int[16];
+        int depth = 0;
+        IntList lineStarts = new IntList(), indents = new IntList();
+        int lineStart = 0, indent = -1;
+        char quote = 0;
+        for (int position = 0; position < code.length(); position++) {
+            char c = code.charAt(position);
+            if (c == '\n') {
+                lineStarts.add(lineStart);
+                indents.add(indent);
+                lineStart = position + 1;
+                indent = -1;
+                quote = 0;
+                continue;
+            }
+            if (indent == -1 && !Character.isWhitespace(c))
+                indent = position - lineStart;
+            if (quote != 0) {
+                if (c == '\\' && position + 1 < code.length() && code.charAt(position + 1) != '\n')
+                    position++;
+                else if (c == quote)
+                    quote = 0;
+            } else if (c == '"' || c == '\'')
+                quote = c;
+            else if (isCommentAt(code, position, comments)) {
+                if (indent == position - lineStart)
+                    indent = -1;
+                int newLine = code.indexOf('\n', position);
+                position = (newLine == -1 ? code.length() : newLine) - 1;
+            } else if (OPENINGS.indexOf(c) != -1) {
+                if (depth == brackets.length)
+                    brackets = Arrays.copyOf(brackets, depth * 2);
+                brackets[depth++] = position;
+            } else if (CLOSINGS.indexOf(c) != -1 && depth > 0
+                    && OPENINGS.indexOf(code.charAt(brackets[depth - 1])) == CLOSINGS.indexOf(c)) {
+                int opening = brackets[--depth];
+                matching[opening] = position;
+                matching[position] = opening;
+            }
+        }
+        lineStarts.add(lineStart);
+        indents.add(indent);
+        return new StructuralIndex(code.length(), matching, lineStarts.toArray(), indents.toArray());
+    }
+
+    private static boolean isCommentAt(String code, int position, List<Notation<?, ?, ?, ?, ?>> comments) {
+        for (Notation<?, ?, ?, ?, ?> comment : comments)
+            if (code.startsWith(comment.getLabel(), position))
+                return true;
+        return false;
+    }
+
+    public int matching(int position) {
+        return position >= 0 && position < length ? matching[position] : -1;
+    }
+
+    public int lineCount() {
+        return lineStarts.length;
+    }
+
+    public int lineOf(int position) {
+        int line = Arrays.binarySearch(lineStarts, position);
+        return line >= 0 ? line : -line - 2;
+    }
+
+    public int lineStart(int line) {
+        return lineStarts[line];
+    }
+
+    public int lineEnd(int line) {
+        return line + 1 < lineStarts.length ? lineStarts[line + 1] - 1 : length;
+    }
+
+    public int indent(int line) {
+        return indents[line];
+    }
+
+    private static class IntList {
+        private int[] values = new int[64];
+        private int size = 0;
+
+        void add(int value) {
+            if (size == values.length)
+                values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
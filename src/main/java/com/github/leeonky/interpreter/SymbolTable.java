@@ -0,0 +1,74 @@
+package com.github.leeonky.interpreter;
+
+import java.util.Arrays;
+
+public class SymbolTable {
+    private String[] symbols = new String[64];
+    private int[] hashes = new int[64];
+    private int[] slots = new int[128];
+    private int size = 0;
+
+    public synchronized int id(CharSequence buffer, int start, int end) {
+        int hash = hash(buffer, start, end);
+        int index = hash & (slots.length - 1);
+        for (int slot; (slot = slots[index]) != 0; index = (index + 1) & (slots.length - 1))
+            if (hashes[slot - 1] == hash && matches(symbols[slot - 1], buffer, start, end))
+                return slot - 1;
+        return add(buffer.subSequence(start, end).toString(), hash, index);
+    }
+
+    public int id(String symbol) {
+        return id(symbol, 0, symbol.length());
+    }
+
+    public String intern(CharSequence buffer, int start, int end) {
+        return symbol(id(buffer, start, end));
+    }
+
+    public synchronized String symbol(int id) {
+        return symbols[id];
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private int add(String symbol, int hash, int index) {
+        if (size == symbols.length) {
+            symbols = Arrays.copyOf(symbols, size * 2);
+            hashes = Arrays.copyOf(hashes, size * 2);
+        }
+        symbols[size] = symbol;
+        hashes[size] = hash;
+        slots[index] = ++size;
+        if (size * 2 > slots.length)
+            rehash();
+        return size - 1;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        for (int id = 0; id < size; id++) {
+            int index = hashes[id] & (slots.length - 1);
+            while (slots[index] != 0)
+                index = (index + 1) & (slots.length - 1);
+            slots[index] = id + 1;
+        }
+    }
+
+    private static int hash(CharSequence buffer, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++)
+            hash = 31 * hash + buffer.charAt(i);
+        return hash;
+    }
+
+    private static boolean matches(String symbol, CharSequence buffer, int start, int end) {
+        if (symbol.length() != end - start)
+            return false;
+        for (int i = 0; i < symbol.length(); i++)
+            if (symbol.charAt(i) != buffer.charAt(start + i))
+                return false;
+        return true;
+    }
+}
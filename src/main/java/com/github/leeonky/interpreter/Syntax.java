@@ -2,9 +2,13 @@ package com.github.leeonky.interpreter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 public abstract class Syntax<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
         MA extends Parser.Mandatory<P, PA, MA, T>, T, R, A> {
@@ -19,17 +23,20 @@ public abstract class Syntax<N extends Node<?, N>, P extends Procedure<?, N, ?,
     public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
             MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T, NodeParser<N, P>, T> single(PA parser) {
         return new DefaultSyntax<N, P, PA, MA, T, NodeParser<N, P>, T>((procedure, syntax) -> {
-            Optional<T> optional = parser.parse(procedure);
-            if (optional.isPresent()) {
+            T t = parser.parseOrNull(procedure);
+            if (t != null) {
                 syntax.isClose(procedure);
                 syntax.close(procedure);
             }
-            return optional.orElse(null);
+            return t;
         }) {
             @Override
             protected NodeParser<N, P> parse(Syntax<N, P, PA, MA, T, NodeParser<N, P>,
                     T> syntax, Function<T, N> factory) {
-                return (P procedure) -> Optional.ofNullable(parser.apply(procedure, syntax)).map(factory);
+                return NodeParser.gated(gate -> procedure -> procedure.node(() -> {
+                    T t = parser.apply(procedure, syntax);
+                    return t == null || !gate.test(procedure) ? null : procedure.createNode(factory, t);
+                }));
             }
         };
     }
@@ -46,7 +53,8 @@ public abstract class Syntax<N extends Node<?, N>, P extends Procedure<?, N, ?,
             @Override
             protected NodeParser.Mandatory<N, P> parse(Syntax<N, P, PA, MA, T,
                     NodeParser.Mandatory<N, P>, T> syntax, Function<T, N> factory) {
-                return (P procedure) -> factory.apply(parser.apply(procedure, syntax));
+                return (P procedure) -> procedure.node(() ->
+                        procedure.createNode(factory, parser.apply(procedure, syntax)));
             }
         };
     }
@@ -54,36 +62,130 @@ public abstract class Syntax<N extends Node<?, N>, P extends Procedure<?, N, ?,
     public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
             MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T,
             NodeParser.Mandatory<N, P>, List<T>> many(MA mandatory) {
-        return new DefaultSyntax<>((procedure, syntax) -> procedure.withColumn(() -> new ArrayList<T>() {{
-            while (!syntax.isClose(procedure)) {
-                add(mandatory.parse(procedure));
+        return new DefaultSyntax<>((procedure, syntax) -> {
+            List<T> list = new ArrayList<>();
+            parseEach(procedure, syntax, mandatory, list::add);
+            return list;
+        });
+    }
+
+    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T,
+            NodeParser.Mandatory<N, P>, List<T>> many(PA parser) {
+        return new DefaultSyntax<>((procedure, syntax) -> {
+            List<T> list = new ArrayList<>();
+            parseEach(procedure, syntax, parser, list::add);
+            return list;
+        });
+    }
+
+    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T,
+            NodeParser.Mandatory<N, P>, Integer> each(MA mandatory, BiConsumer<? super P, ? super T> consumer) {
+        return new DefaultSyntax<>((procedure, syntax) -> parseEach(procedure, syntax, mandatory, t -> {
+            consumer.accept(procedure, t);
+            procedure.getSourceCode().streamed();
+        }));
+    }
+
+    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T,
+            NodeParser.Mandatory<N, P>, Integer> each(PA parser, BiConsumer<? super P, ? super T> consumer) {
+        return new DefaultSyntax<>((procedure, syntax) -> parseEach(procedure, syntax, parser, t -> {
+            consumer.accept(procedure, t);
+            procedure.getSourceCode().streamed();
+        }));
+    }
+
+    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
+            MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T,
+            NodeParser.Mandatory<N, P>, List<T>> parallelRows(Notation<?, N, ?, P, ?> rowStart, Supplier<MA> row,
+                                                              Function<SourceCode, P> procedureFactory, int batchSize) {
+        return new DefaultSyntax<>((procedure, syntax) -> procedure.nested(() -> {
+            SourceCode sourceCode = procedure.getSourceCode();
+            int[] starts = sourceCode.linesStartWith(rowStart.getLabel());
+            List<T> rows;
+            if (starts.length <= batchSize || procedure.isValidationMode() || procedure.isListening())
+                rows = parseRows(procedure, row.get(), 0, starts.length);
+            else {
+                rows = new ArrayList<>(starts.length);
+                List<P> workers = new ArrayList<>();
+                for (int from = 0; from < starts.length; from += batchSize)
+                    workers.add(Procedure.fork(procedure, procedureFactory, starts[from]));
+                for (RowBatch<T> batch : IntStream.range(0, workers.size()).parallel()
+                        .mapToObj(i -> new RowBatch<>(workers.get(i), row.get(), i * batchSize,
+                                Math.min(starts.length, (i + 1) * batchSize)))
+                        .collect(Collectors.toList())) {
+                    rows.addAll(batch.rows());
+                    sourceCode.getBudget().join(batch.budget, batch.end);
+                    sourceCode.chars().position = batch.end;
+                }
+            }
+            syntax.isClose(procedure);
+            syntax.close(procedure);
+            return rows;
+        }));
+    }
+
+    private static <P extends Procedure<?, ?, ?, ?>, T> List<T> parseRows(P procedure, Parser.Mandatory<P, ?, ?, T> row,
+                                                                          int from, int to) {
+        return procedure.withColumn(from, () -> {
+            List<T> rows = new ArrayList<>(to - from);
+            for (int i = from; i < to; i++) {
+                int position = procedure.getSourceCode().step();
+                rows.add(row.parse(procedure));
+                procedure.getSourceCode().iterated(position);
+                procedure.incrementColumn();
+            }
+            return rows;
+        });
+    }
+
+    private static <P extends Procedure<?, ?, ?, ?>, T> int parseEach(P procedure, Syntax<?, P, ?, ?, ?, ?, ?> syntax,
+                                                                     Parser.Mandatory<P, ?, ?, T> mandatory,
+                                                                     Consumer<? super T> consumer) {
+        return procedure.nested(() -> procedure.withColumn(() -> {
+            int count = 0;
+            ClosingCheck<P> closing = new ClosingCheck<>(syntax);
+            while (!closing.isClose(procedure)) {
+                int position = procedure.getSourceCode().step();
+                consumer.accept(mandatory.parse(procedure));
+                procedure.getSourceCode().iterated(position);
+                count++;
                 procedure.incrementColumn();
                 if (!syntax.isSplitter(procedure)) {
-                    syntax.isClose(procedure);
+                    closing.isClose(procedure);
                     break;
                 }
             }
             syntax.close(procedure);
-        }}));
+            return count;
+        }));
     }
 
-    public static <N extends Node<?, N>, P extends Procedure<?, N, ?, ?>, PA extends Parser<P, PA, MA, T>,
-            MA extends Parser.Mandatory<P, PA, MA, T>, T> Syntax<N, P, PA, MA, T,
-            NodeParser.Mandatory<N, P>, List<T>> many(PA parser) {
-        return new DefaultSyntax<>((procedure, syntax) -> procedure.withColumn(() -> new ArrayList<T>() {{
-            while (!syntax.isClose(procedure)) {
-                Optional<T> optional = parser.parse(procedure);
-                if (!optional.isPresent())
+    private static <P extends Procedure<?, ?, ?, ?>, T> int parseEach(P procedure, Syntax<?, P, ?, ?, ?, ?, ?> syntax,
+                                                                     Parser<P, ?, ?, T> parser,
+                                                                     Consumer<? super T> consumer) {
+        return procedure.nested(() -> procedure.withColumn(() -> {
+            int count = 0;
+            ClosingCheck<P> closing = new ClosingCheck<>(syntax);
+            while (!closing.isClose(procedure)) {
+                int position = procedure.getSourceCode().step();
+                T t = parser.parseOrNull(procedure);
+                if (t == null)
                     break;
-                add(optional.get());
+                procedure.getSourceCode().iterated(position);
+                consumer.accept(t);
+                count++;
                 procedure.incrementColumn();
                 if (!syntax.isSplitter(procedure)) {
-                    syntax.isClose(procedure);
+                    closing.isClose(procedure);
                     break;
                 }
             }
             syntax.close(procedure);
-        }}));
+            return count;
+        }));
     }
 
     protected abstract boolean isClose(P procedure);
@@ -94,7 +196,8 @@ public abstract class Syntax<N extends Node<?, N>, P extends Procedure<?, N, ?,
 
     @SuppressWarnings("unchecked")
     protected R parse(Syntax<N, P, PA, MA, T, R, A> syntax, Function<A, N> factory) {
-        return (R) (NodeParser.Mandatory<N, P>) procedure -> factory.apply(parser.apply(procedure, syntax));
+        return (R) (NodeParser.Mandatory<N, P>) procedure -> procedure.node(() -> procedure.createNode(factory,
+                parser.apply(procedure, syntax)));
     }
 
     public <NR, NA> Syntax<N, P, PA, MA, T, NR, NA> and(Function<Syntax<N, P, PA, MA, T, R, A>,
@@ -119,6 +222,49 @@ public abstract class Syntax<N extends Node<?, N>, P extends Procedure<?, N, ?,
         this.token = token;
     }
 
+    private static class RowBatch<T> {
+        private final ParseBudget budget;
+        private List<T> rows;
+        private RuntimeException error;
+        private int end;
+
+        <P extends Procedure<?, ?, ?, ?>> RowBatch(P worker, Parser.Mandatory<P, ?, ?, T> row, int from, int to) {
+            budget = worker.getSourceCode().getBudget();
+            try {
+                rows = parseRows(worker, row, from, to);
+                end = worker.getSourceCode().chars().position();
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        List<T> rows() {
+            if (error != null)
+                throw error;
+            return rows;
+        }
+    }
+
+    private static class ClosingCheck<P extends Procedure<?, ?, ?, ?>> {
+        private final Syntax<?, P, ?, ?, ?, ?, ?> syntax;
+        private int from = -1, to = -1;
+        private boolean closed;
+
+        ClosingCheck(Syntax<?, P, ?, ?, ?, ?, ?> syntax) {
+            this.syntax = syntax;
+        }
+
+        boolean isClose(P procedure) {
+            int position = procedure.getSourceCode().chars().position();
+            if (position != from && position != to) {
+                from = position;
+                closed = syntax.isClose(procedure);
+                to = procedure.getSourceCode().chars().position();
+            }
+            return closed;
+        }
+    }
+
     public static class DefaultSyntax<N extends Node<?, N>, P extends Procedure<?, N, ?, ?>,
             PA extends Parser<P, PA, MA, T>, MA extends Parser.Mandatory<P, PA, MA, T>, T, R, A>
             extends Syntax<N, P, PA, MA, T, R, A> {
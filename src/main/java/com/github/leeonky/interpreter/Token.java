@@ -17,10 +17,23 @@ public class Token {
         return content.toString();
     }
 
+    public String getContent(SymbolTable symbols) {
+        return symbols.intern(content, 0, content.length());
+    }
+
+    CharSequence content() {
+        return content;
+    }
+
     public void append(char c) {
         content.append(c);
     }
 
+    Token append(CharSequence code, int start, int end) {
+        content.append(code, start, end);
+        return this;
+    }
+
     public Token append(String str) {
         content.append(str);
         return this;
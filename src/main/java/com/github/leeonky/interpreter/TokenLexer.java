@@ -0,0 +1,103 @@
+package com.github.leeonky.interpreter;
+
+import java.util.*;
+
+import static java.util.Optional.empty;
+
+public class TokenLexer {
+    private static final int ASCII = 128;
+    private static final int[] NONE = new int[0];
+    private final List<String> keywords = new ArrayList<>();
+    private final KeywordAutomaton keywordAutomaton;
+    private final TokenSpec[] specs;
+    private final int[][] asciiStarts = new int[ASCII][];
+
+    private TokenLexer(Collection<? extends Notation<?, ?, ?, ?, ?>> keywords, TokenSpec[] specs) {
+        keywords.forEach(notation -> this.keywords.add(notation.getLabel()));
+        keywordAutomaton = KeywordAutomaton.compile(this.keywords);
+        this.specs = specs;
+        for (char c = 0; c < ASCII; c++)
+            asciiStarts[c] = startsWith(c);
+    }
+
+    public static TokenLexer compile(Collection<? extends Notation<?, ?, ?, ?, ?>> keywords, TokenSpec... specs) {
+        return new TokenLexer(keywords, specs);
+    }
+
+    private int[] startsWith(char c) {
+        int[] indexes = new int[specs.length];
+        int size = 0;
+        for (int index = 0; index < specs.length; index++)
+            if (specs[index].startsWith(c))
+                indexes[size++] = index;
+        return size == 0 ? NONE : Arrays.copyOf(indexes, size);
+    }
+
+    private int[] candidates(char c) {
+        return c < ASCII ? asciiStarts[c] : startsWith(c);
+    }
+
+    public int keywordKind(String label) {
+        return keywords.indexOf(label);
+    }
+
+    public int specKind(int specIndex) {
+        return keywords.size() + specIndex;
+    }
+
+    public Optional<Lexeme> scan(SourceCode sourceCode) {
+        return sourceCode.tryFetch(() -> {
+            int start = sourceCode.nextPosition();
+            CharSequence code = sourceCode.chars().text();
+            if (start >= code.length())
+                return empty();
+            int kind = -1, contentStart = start, end = -1;
+            int keyword = keywordAutomaton.longest(code, start);
+            if (keyword != -1) {
+                kind = keywordAutomaton.keyword(keyword);
+                end = start + keywordAutomaton.depth(keyword);
+            }
+            for (int index : candidates(code.charAt(start))) {
+                TokenSpec spec = specs[index];
+                int from = spec.isTrimStart() ? contentAfter(sourceCode, start + 1) : start;
+                int to = spec.end(code, from);
+                if (to > end && (!spec.hasPredicate() || spec.accept(token(start, code, from, to)))) {
+                    kind = specKind(index);
+                    contentStart = from;
+                    end = to;
+                }
+            }
+            if (kind == -1)
+                return empty();
+            sourceCode.chars().position = end;
+            return Optional.of(new Lexeme(kind, token(start, code, contentStart, end)));
+        });
+    }
+
+    private int contentAfter(SourceCode sourceCode, int position) {
+        sourceCode.chars().position = position;
+        return sourceCode.nextPosition();
+    }
+
+    private Token token(int position, CharSequence code, int start, int end) {
+        return new Token(position).append(code, start, end);
+    }
+
+    public static class Lexeme {
+        private final int kind;
+        private final Token token;
+
+        Lexeme(int kind, Token token) {
+            this.kind = kind;
+            this.token = token;
+        }
+
+        public int getKind() {
+            return kind;
+        }
+
+        public Token getToken() {
+            return token;
+        }
+    }
+}
@@ -7,15 +7,35 @@ public interface TokenScanner<C extends RuntimeContext, N extends Node<C, N>, E
         O extends Operator<C, N, O, E>, P extends Procedure<C, N, E, O>> {
     static <E extends Expression<C, N, E, O>, N extends Node<C, N>, C extends RuntimeContext,
             O extends Operator<C, N, O, E>, S extends Procedure<C, N, E, O>> Mandatory<C, N, E, O, S> tokenScanner(
-            boolean trimStart, TriplePredicate<String, Integer, Integer> endsWith) {
+            boolean trimStart, TriplePredicate<CharSequence, Integer, Integer> endsWith) {
         return sourceCode -> sourceCode.fetchToken(trimStart, endsWith);
     }
 
     Optional<Token> scan(SourceCode sourceCode);
 
+    default Token scanOrNull(SourceCode sourceCode) {
+        return scan(sourceCode).orElse(null);
+    }
+
     default NodeParser<N, P> nodeParser(Function<Token, N> mapper) {
-        return procedure -> scan(procedure.getSourceCode()).map(token ->
-                mapper.apply(token).setPositionBegin(token.getPosition()));
+        return NodeParser.gated(gate -> procedure -> {
+            Token token = scanOrNull(procedure.getSourceCode());
+            if (token == null || !gate.test(procedure))
+                return null;
+            procedure.emitToken(token);
+            return procedure.createNode(mapper, token).setPositionBegin(token.getPosition());
+        });
+    }
+
+    default NodeParser<N, P> symbolNode(Function<String, N> factory) {
+        return NodeParser.gated(gate -> procedure -> {
+            Token token = scanOrNull(procedure.getSourceCode());
+            if (token == null || !gate.test(procedure))
+                return null;
+            procedure.emitToken(token);
+            return procedure.createNode(factory, token.getContent(procedure.getSymbols()))
+                    .setPositionBegin(token.getPosition());
+        });
     }
 
     interface Mandatory<C extends RuntimeContext, N extends Node<C, N>, E extends Expression<C, N, E, O>,
@@ -25,7 +45,8 @@ public interface TokenScanner<C extends RuntimeContext, N extends Node<C, N>, E
         default NodeParser.Mandatory<N, P> nodeParser(Function<Token, N> mapper) {
             return procedure -> {
                 Token token = scan(procedure.getSourceCode());
-                return mapper.apply(token).setPositionBegin(token.getPosition());
+                procedure.emitToken(token);
+                return procedure.createNode(mapper, token).setPositionBegin(token.getPosition());
             };
         }
     }
@@ -1,26 +1,30 @@
 package com.github.leeonky.interpreter;
 
+import java.util.Collections;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Predicate;
-
-import static com.github.leeonky.util.function.When.when;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class TokenSpec {
+    private static final Predicate<Token> ANY_TOKEN = token -> true;
     private final Predicate<Character> startsWith;
-    private final Set<String> excluded;
-    private final TriplePredicate<String, Integer, Integer> endsWith;
+    private final Keywords excluded;
+    private final TriplePredicate<CharSequence, Integer, Integer> endsWith;
     private boolean trimStart = false;
-    private Predicate<Token> predicate = token -> true;
+    private Predicate<Token> predicate = ANY_TOKEN;
+    private ThreadLocal<Matcher> matcher;
 
     private TokenSpec(Predicate<Character> startsWith, Set<String> excluded,
-                      TriplePredicate<String, Integer, Integer> endsWith) {
+                      TriplePredicate<CharSequence, Integer, Integer> endsWith) {
         this.startsWith = startsWith;
-        this.excluded = excluded;
+        this.excluded = Keywords.of(excluded);
         this.endsWith = endsWith;
     }
 
     public static TokenSpec tokenSpec(Predicate<Character> startsWith, Set<String> excluded,
-                                      TriplePredicate<String, Integer, Integer> endsWith) {
+                                      TriplePredicate<CharSequence, Integer, Integer> endsWith) {
         return new TokenSpec(startsWith, excluded, endsWith);
     }
 
@@ -28,6 +32,16 @@ public class TokenSpec {
         return tokenSpec(startsWith, excluded, (code, position, size) -> delimiters.contains(code.charAt(position)));
     }
 
+    public static TokenSpec regex(Pattern pattern, Set<String> excluded) {
+        TokenSpec tokenSpec = tokenSpec(c -> true, excluded, (code, position, size) -> false);
+        tokenSpec.matcher = ThreadLocal.withInitial(() -> pattern.matcher("").useTransparentBounds(true));
+        return tokenSpec;
+    }
+
+    public static TokenSpec regex(Pattern pattern) {
+        return regex(pattern, Collections.emptySet());
+    }
+
     public TokenSpec trimStart() {
         trimStart = true;
         return this;
@@ -38,11 +52,74 @@ public class TokenSpec {
         return this;
     }
 
+    boolean startsWith(char c) {
+        return startsWith.test(c);
+    }
+
+    boolean isTrimStart() {
+        return trimStart;
+    }
+
+    boolean hasPredicate() {
+        return predicate != ANY_TOKEN;
+    }
+
+    boolean accept(Token token) {
+        return predicate.test(token);
+    }
+
+    int end(CharSequence code, int start) {
+        if (matcher != null)
+            return regexEnd(code, start);
+        int end = start, size = 0;
+        while (end < code.length() && !endsWith.test(code, end, size++))
+            end++;
+        return excluded.contains(code, start, end) ? -1 : end;
+    }
+
+    private int regexEnd(CharSequence code, int start) {
+        Matcher matcher = this.matcher.get().reset(code).region(start, code.length());
+        int end = matcher.lookingAt() ? matcher.end() : -1;
+        matcher.reset("");
+        return end == -1 || excluded.contains(code, start, end) ? -1 : end;
+    }
+
     public <E extends Expression<C, N, E, O>, N extends Node<C, N>, C extends RuntimeContext,
             O extends Operator<C, N, O, E>, S extends Procedure<C, N, E, O>> TokenScanner<C, N, E, O, S> scanner() {
-        return sourceCode -> sourceCode.tryFetch(() -> when(sourceCode.startsWith(startsWith)).optional(() -> {
-            Token token = TokenScanner.tokenScanner(trimStart, endsWith).scan(sourceCode);
-            return !excluded.contains(token.getContent()) && predicate.test(token) ? token : null;
-        }));
+        return new TokenScanner<C, N, E, O, S>() {
+            @Override
+            public Optional<Token> scan(SourceCode sourceCode) {
+                return Optional.ofNullable(scanOrNull(sourceCode));
+            }
+
+            @Override
+            public Token scanOrNull(SourceCode sourceCode) {
+                return sourceCode.tryFetchOrNull(() -> token(sourceCode));
+            }
+        };
+    }
+
+    private Token token(SourceCode sourceCode) {
+        if (!sourceCode.startsWith(startsWith))
+            return null;
+        if (matcher != null)
+            return regexToken(sourceCode);
+        Token token = sourceCode.fetchToken(trimStart, endsWith);
+        return !excluded.contains(token.content(), 0, token.content().length()) && predicate.test(token) ? token : null;
+    }
+
+    private Token regexToken(SourceCode sourceCode) {
+        int position = sourceCode.nextPosition(), start = position;
+        if (trimStart) {
+            sourceCode.chars().position = position + 1;
+            start = sourceCode.nextPosition();
+        }
+        CharSequence code = sourceCode.chars().text();
+        int end = end(code, start);
+        if (end == -1)
+            return null;
+        sourceCode.chars().position = end;
+        Token token = new Token(position).append(code, start, end);
+        return predicate.test(token) ? token : null;
     }
 }
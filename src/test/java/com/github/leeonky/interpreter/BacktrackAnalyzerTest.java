@@ -0,0 +1,60 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import static com.github.leeonky.interpreter.BacktrackAnalyzer.Risk.*;
+import static com.github.leeonky.interpreter.ParseBudget.budget;
+import static com.github.leeonky.interpreter.Parser.lazyNode;
+import static com.github.leeonky.interpreter.Parser.oneOf;
+import static com.github.leeonky.interpreter.Rules.splitBy;
+import static com.github.leeonky.interpreter.Syntax.many;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BacktrackAnalyzerTest extends BaseTest {
+    private final BacktrackAnalyzer analyzer = new BacktrackAnalyzer();
+    private final NodeParser<TestNode, TestProcedure> recursion = lazyNode(() -> this.recursion).rule("recursion");
+
+    private TestProcedure givenAnalyzedProcedureWithCode(String code) {
+        TestProcedure procedure = givenProcedureWithCode(code);
+        procedure.getSourceCode().setAnalyzer(analyzer);
+        return procedure;
+    }
+
+    @Test
+    void report_rewound_chars_of_alternatives_with_shared_prefix() {
+        TestProcedure procedure = givenAnalyzedProcedureWithCode("a c");
+
+        assertThat(oneOf(nt("a").before(nt("b").node(TestNode::new)).rule("ab"),
+                nt("a").before(nt("c").node(TestNode::new)).rule("ac")).parse(procedure)).isPresent();
+
+        assertThat(analyzer.report()).hasSize(1);
+        assertThat(analyzer.report().get(0).getRule()).isEqualTo("ab");
+        assertThat(analyzer.report().get(0).getRisk()).isEqualTo(SHARED_PREFIX);
+    }
+
+    @Test
+    void report_repetition_of_element_consumes_nothing() {
+        TestProcedure procedure = givenAnalyzedProcedureWithCode(",,");
+        NodeParser.Mandatory<TestNode, TestProcedure> nothing = p -> new TestNode();
+
+        many(nothing).and(splitBy(nt(","))).as(TestNode::new).rule("list").parse(procedure);
+
+        assertThat(analyzer.report()).hasSize(1);
+        assertThat(analyzer.report().get(0).getRule()).isEqualTo("list");
+        assertThat(analyzer.report().get(0).getRisk()).isEqualTo(NULLABLE_REPETITION);
+        assertThat(analyzer.report().get(0).getCount()).isEqualTo(3);
+    }
+
+    @Test
+    void rank_recursion_without_consuming_first() {
+        TestProcedure procedure = givenAnalyzedProcedureWithCode("a");
+        procedure.getSourceCode().setBudget(budget().maxDepth(10));
+
+        assertThrows(ParseLimitException.class, () -> oneOf(nt("a").before(nt("b").node(TestNode::new))
+                .rule("ab"), recursion).parse(procedure));
+
+        assertThat(analyzer.report().get(0).getRule()).isEqualTo("recursion");
+        assertThat(analyzer.report().get(0).getRisk()).isEqualTo(UNGUARDED_RECURSION);
+    }
+}
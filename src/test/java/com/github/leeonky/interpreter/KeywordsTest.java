@@ -0,0 +1,39 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeywordsTest {
+    private final Keywords keywords = Keywords.of(asList("is", "which", "null", "true", "==", "and"));
+
+    @Test
+    void contains_keyword_in_range_of_buffer() {
+        String code = "a == null which";
+
+        assertThat(keywords.contains(code, 2, 4)).isTrue();
+        assertThat(keywords.contains(code, 5, 9)).isTrue();
+        assertThat(keywords.contains(code, 10, 15)).isTrue();
+        assertThat(keywords.contains(code, 5, 8)).isFalse();
+        assertThat(keywords.contains(code, 0, 1)).isFalse();
+        assertThat(keywords.contains(new StringBuilder("trues"), 0, 4)).isTrue();
+    }
+
+    @Test
+    void starts_with_any_keyword_at_position() {
+        String code = "a isnull";
+
+        assertThat(keywords.startsAt(code, 2)).isTrue();
+        assertThat(keywords.startsAt(code, 4)).isTrue();
+        assertThat(keywords.startsAt(code, 3)).isFalse();
+        assertThat(keywords.startsAt(code, 8)).isFalse();
+    }
+
+    @Test
+    void contain_nothing_when_empty() {
+        assertThat(Keywords.of(emptyList()).contains("a", 0, 1)).isFalse();
+        assertThat(Keywords.of(emptyList()).startsAt("a", 0)).isFalse();
+    }
+}
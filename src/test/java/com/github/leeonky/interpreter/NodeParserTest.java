@@ -3,16 +3,22 @@ package com.github.leeonky.interpreter;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.BiFunction;
 
+import static com.github.leeonky.interpreter.Alternative.alternative;
 import static com.github.leeonky.interpreter.NodeParser.positionNode;
+import static com.github.leeonky.interpreter.Parser.adaptiveOneOf;
 import static com.github.leeonky.interpreter.Parser.lazyNode;
+import static com.github.leeonky.interpreter.Parser.oneOf;
 import static java.util.Collections.emptyMap;
 import static java.util.Optional.empty;
 import static java.util.Optional.of;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 class NodeParserTest extends BaseTest {
@@ -335,6 +341,19 @@ class NodeParserTest extends BaseTest {
 
             assertThat(nodeParser.concatAll(clauseParser).parse(testProcedure).get()).isSameAs(lastExpression);
         }
+
+        @Test
+        void stop_at_clause_which_returns_input_without_consuming_code() {
+            TestProcedure testProcedure = givenProcedureWithCode("a");
+            TestNode node = new TestNode();
+            NodeParser<TestNode, TestProcedure> nodeParser = procedure -> of(node);
+            ClauseParser<TestNode, TestProcedure> clauseParser = procedure -> of(input -> input);
+
+            assertThat(nodeParser.concatAll(clauseParser).parse(testProcedure).get()).isSameAs(node);
+
+            testProcedure.validationMode(node);
+            assertThat(nodeParser.concatAll(clauseParser).parse(testProcedure).get()).isSameAs(node);
+        }
     }
 
     @Nested
@@ -594,6 +613,53 @@ class NodeParserTest extends BaseTest {
         }
     }
 
+    @Nested
+    class ColumnParser {
+        private final List<Integer> created = new ArrayList<>();
+
+        private void parseRow(TestProcedure procedure, NodeParser<TestNode, TestProcedure> cell) {
+            procedure.withColumn(() -> {
+                cell.parse(procedure);
+                procedure.incrementColumn();
+                return cell.parse(procedure);
+            });
+        }
+
+        @Test
+        void create_parser_once_per_column() {
+            NodeParser<TestNode, TestProcedure> cell = NodeParser.columnParser(column -> {
+                created.add(column);
+                return nt("a").node(TestNode::new);
+            });
+            TestProcedure procedure = givenProcedureWithCode("a a a a");
+
+            parseRow(procedure, cell);
+            parseRow(procedure, cell);
+
+            assertThat(created).containsExactly(0, 1);
+            assertThat(procedure.getSourceCode().hasCode()).isFalse();
+        }
+
+        @Test
+        void create_mandatory_once_per_column() {
+            NodeParser.Mandatory<TestNode, TestProcedure> cell = NodeParser.columnMandatory(column -> {
+                created.add(column);
+                return nt("a").node(TestNode::new).mandatory("");
+            });
+            TestProcedure procedure = givenProcedureWithCode("a a a a");
+
+            procedure.withColumn(() -> {
+                cell.parse(procedure);
+                procedure.incrementColumn();
+                cell.parse(procedure);
+                procedure.incrementColumn();
+                return cell.parse(procedure);
+            });
+
+            assertThat(created).containsExactly(0, 1, 2);
+        }
+    }
+
     @Nested
     class NotStartWith {
 
@@ -607,4 +673,241 @@ class NodeParserTest extends BaseTest {
             assertThat(procedure.getSourceCode().nextPosition()).isEqualTo(0);
         }
     }
+
+    @Nested
+    class MandatoryAtFurthest {
+
+        @Test
+        void raise_error_at_furthest_failure_with_expected_notations() {
+            NodeParser<TestNode, TestProcedure> object = nt("{").before(nt("a").before(nt(",").before(nt("b")
+                    .node(TestNode::new))));
+            TestProcedure procedure = givenProcedureWithCode("{ a , c }");
+
+            SyntaxException exception = assertThrows(SyntaxException.class, () ->
+                    oneOf(object, nt("[").node(TestNode::new)).mandatoryAtFurthest("invalid").parse(procedure));
+
+            assertThat(exception).hasMessage("invalid, expect `b`");
+            assertThat(exception.show("{ a , c }")).isEqualTo("{ a , c }\n      ^");
+        }
+
+        @Test
+        void raise_error_at_current_position_when_nothing_matched() {
+            TestProcedure procedure = givenProcedureWithCode("z");
+
+            SyntaxException exception = assertThrows(SyntaxException.class, () ->
+                    nt("[").node(TestNode::new).mandatoryAtFurthest("invalid").parse(procedure));
+
+            assertThat(exception).hasMessage("invalid, expect `[`");
+        }
+
+        @Test
+        void return_node_when_matched() {
+            TestProcedure procedure = givenProcedureWithCode("a");
+
+            assertThat(nt("a").node(TestNode::new).mandatoryAtFurthest("invalid").parse(procedure).getContent())
+                    .isEqualTo("a");
+        }
+    }
+
+    @Nested
+    class Expecting {
+
+        @Test
+        void replace_expected_notations_with_label_when_nothing_consumed() {
+            TestProcedure procedure = givenProcedureWithCode(" z");
+
+            assertThat(oneOf(nt("{").node(TestNode::new).expecting("object"),
+                    nt("[").node(TestNode::new).expecting("list")).parse(procedure)).isEmpty();
+
+            assertThat(procedure.getFurthestFailure().getPosition()).isEqualTo(1);
+            assertThat(procedure.getFurthestFailure().getExpected()).containsExactly("object", "list");
+        }
+
+        @Test
+        void keep_inner_expected_notations_when_matched_further() {
+            TestProcedure procedure = givenProcedureWithCode("{ z");
+
+            assertThat(nt("{").before(nt("a").node(TestNode::new)).expecting("object").parse(procedure)).isEmpty();
+
+            assertThat(procedure.getFurthestFailure().getPosition()).isEqualTo(2);
+            assertThat(procedure.getFurthestFailure().getExpected()).containsExactly("a");
+        }
+    }
+
+    @Nested
+    class FollowedBy {
+
+        @Test
+        void return_node_and_keep_following_notation_when_followed_by_notation() {
+            TestProcedure procedure = givenProcedureWithCode("a |");
+
+            assertThat(nt("a").node(TestNode::new).followedBy(nt("|")).parse(procedure).get().getContent())
+                    .isEqualTo("a");
+            assertThat(procedure.getSourceCode().popWord(nt("|"))).isPresent();
+        }
+
+        @Test
+        void return_empty_and_back_position_when_not_followed_by_notation() {
+            TestProcedure procedure = givenProcedureWithCode("a +");
+
+            assertThat(nt("a").node(TestNode::new).followedBy(nt("|")).parse(procedure)).isEmpty();
+            assertThat(procedure.getSourceCode().nextPosition()).isEqualTo(0);
+        }
+
+        @Test
+        void return_node_when_not_followed_by_notation() {
+            TestProcedure procedure = givenProcedureWithCode("a +");
+
+            assertThat(nt("a").node(TestNode::new).notFollowedBy(nt("|")).parse(procedure)).isPresent();
+        }
+
+        @Test
+        void return_empty_and_back_position_when_followed_by_notation() {
+            TestProcedure procedure = givenProcedureWithCode("a |");
+
+            assertThat(nt("a").node(TestNode::new).notFollowedBy(nt("|")).parse(procedure)).isEmpty();
+            assertThat(procedure.getSourceCode().nextPosition()).isEqualTo(0);
+        }
+
+        @Test
+        void should_not_create_node_when_lookahead_fails() {
+            NodeParser<TestNode, TestProcedure> a = nt("a").node(label -> {
+                throw new AssertionError("should not create node");
+            });
+
+            assertThat(a.followedBy(nt("|")).parse(givenProcedureWithCode("a +"))).isEmpty();
+            assertThat(a.followedBy(nt("+")).notFollowedBy(nt("+")).parse(givenProcedureWithCode("a +"))).isEmpty();
+        }
+    }
+
+    @Nested
+    class Cut {
+
+        @Test
+        void raise_error_instead_of_trying_other_alternatives_after_cut() {
+            TestProcedure procedure = givenProcedureWithCode("{ b");
+
+            SyntaxException exception = assertThrows(SyntaxException.class, () ->
+                    oneOf(nt("{").before(nt("a").node(TestNode::new).cut("invalid object")),
+                            nt("{").before(nt("b").node(TestNode::new))).parse(procedure));
+
+            assertThat(exception).hasMessage("invalid object, expect `a`");
+            assertThat(exception.show("{ b")).isEqualTo("{ b\n  ^");
+        }
+
+        @Test
+        void try_other_alternatives_when_failed_before_cut() {
+            TestProcedure procedure = givenProcedureWithCode("[ b");
+
+            assertThat(oneOf(nt("{").before(nt("a").node(TestNode::new).cut("invalid object")),
+                    nt("[").before(nt("b").node(TestNode::new))).parse(procedure).get().getContent()).isEqualTo("b");
+        }
+
+        @Test
+        void release_commit_when_committed_alternative_matched() {
+            TestProcedure procedure = givenProcedureWithCode("{ a [ z");
+
+            assertThat(nt("{").before(nt("a").node(TestNode::new).cut("invalid object")).parse(procedure)).isPresent();
+
+            assertThat(nt("[").before(nt("c").node(TestNode::new)).parse(procedure)).isEmpty();
+            assertThat(procedure.getSourceCode().nextPosition()).isEqualTo(4);
+        }
+    }
+
+    @Nested
+    class FactoredOneOf {
+        private final NodeParser<TestNode, TestProcedure> consumeAndFail = procedure -> {
+            procedure.getSourceCode().popChar(emptyMap());
+            return empty();
+        };
+        private final NodeParser<TestNode, TestProcedure> parser = oneOf(nt("{").alternative(consumeAndFail),
+                nt("{").alternative(nt("a").node(TestNode::new)), nt("{").alternative(nt("b").node(TestNode::new)),
+                alternative(nt("c").node(TestNode::new)), nt("{").alternative(nt("d").node(TestNode::new)));
+
+        @Test
+        void match_suffix_after_shared_prefix_in_order() {
+            assertThat(parser.parse(givenProcedureWithCode("{ a")).get().getContent()).isEqualTo("a");
+            assertThat(parser.parse(givenProcedureWithCode("{ b")).get().getContent()).isEqualTo("b");
+            assertThat(parser.parse(givenProcedureWithCode("c")).get().getContent()).isEqualTo("c");
+            assertThat(parser.parse(givenProcedureWithCode("{ d")).get().getContent()).isEqualTo("d");
+        }
+
+        @Test
+        void return_empty_and_back_position_when_no_suffix_matched() {
+            TestProcedure procedure = givenProcedureWithCode("{ z");
+
+            assertThat(parser.parse(procedure)).isEmpty();
+            assertThat(procedure.getSourceCode().nextPosition()).isEqualTo(0);
+        }
+
+        @Test
+        void keep_expected_notations_of_all_alternatives() {
+            SyntaxException exception = assertThrows(SyntaxException.class, () ->
+                    parser.mandatoryAtFurthest("invalid").parse(givenProcedureWithCode("{ z")));
+
+            assertThat(exception).hasMessage("invalid, expect `a` or `b` or `d`");
+        }
+    }
+
+    @Nested
+    class AdaptiveOneOf {
+        private int tried = 0;
+        private final NodeParser<TestNode, TestProcedure> counted = procedure -> {
+            tried++;
+            return empty();
+        };
+
+        @Test
+        void try_alternatives_in_given_order_before_any_statistics() {
+            TestProcedure procedure = givenProcedureWithCode("a");
+
+            assertThat(adaptiveOneOf(nt("a").node(TestNode::new), counted).parse(procedure).get().getContent())
+                    .isEqualTo("a");
+            assertThat(tried).isEqualTo(0);
+        }
+
+        @Test
+        void try_frequently_matched_alternative_first_after_reorder() {
+            NodeParser<TestNode, TestProcedure> parser = adaptiveOneOf(counted, nt("b").node(TestNode::new));
+            for (int i = 0; i < AdaptiveOrder.REORDER_INTERVAL; i++)
+                assertThat(parser.parse(givenProcedureWithCode("b"))).isPresent();
+            tried = 0;
+
+            assertThat(parser.parse(givenProcedureWithCode("b")).get().getContent()).isEqualTo("b");
+            assertThat(tried).isEqualTo(0);
+            assertThat(parser.parse(givenProcedureWithCode("c"))).isEmpty();
+            assertThat(tried).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    class ParseOrNull {
+        private final NodeParser<TestNode, TestProcedure> a = new NodeParser<TestNode, TestProcedure>() {
+            @Override
+            public Optional<TestNode> parse(TestProcedure procedure) {
+                throw new AssertionError("should not wrap result in Optional");
+            }
+
+            @Override
+            public TestNode parseOrNull(TestProcedure procedure) {
+                return procedure.getSourceCode().popWord(nt("a")).map(TestNode::new).orElse(null);
+            }
+        };
+
+        @Test
+        void return_null_when_no_match() {
+            assertThat(nt("a").node(TestNode::new).parseOrNull(givenProcedureWithCode("b"))).isNull();
+            assertThat(nt("a").node(TestNode::new).parse(givenProcedureWithCode("b"))).isEmpty();
+        }
+
+        @Test
+        void combinators_parse_with_nullable_contract() {
+            NodeParser<TestNode, TestProcedure> parser = oneOf(nt("[").before(a).followedBy(nt("]")),
+                    a.concat(nt("+").operator(TestOperator::new).clause(a)).expecting("a").map(node -> node));
+
+            assertThat(parser.parseOrNull(givenProcedureWithCode("a + a"))).isInstanceOf(TestExpression.class);
+            assertThat(parser.parseOrNull(givenProcedureWithCode("[a]"))).isNotNull();
+            assertThat(parser.parse(givenProcedureWithCode("b"))).isEmpty();
+        }
+    }
 }
@@ -99,6 +99,15 @@ class NotationTest extends BaseTest {
             assertThat(testNode.get().getContent()).isEqualTo("true");
             assertThat(sourceCode.popChar(new HashMap<>())).isEqualTo('d');
         }
+
+        @Test
+        void should_not_create_node_when_not_a_word() {
+            SourceCode sourceCode = givenSourceCode("trueunexpectedDelimiter");
+
+            assertThat(nt("true").wordNode(content -> {
+                throw new AssertionError("should not create node");
+            }, new HashSet<>(Arrays.asList("delimiter"))).parse(new TestProcedure(sourceCode))).isEmpty();
+        }
     }
 
     @Nested
@@ -133,6 +142,15 @@ class NotationTest extends BaseTest {
             assertThat(testOperator.get().getPosition()).isEqualTo(0 + START_POSITION);
             assertThat(sourceCode.popChar(new HashMap<>())).isEqualTo('d');
         }
+
+        @Test
+        void should_not_create_operator_when_not_a_word() {
+            SourceCode sourceCode = givenSourceCode("andunexpectedDelimiter");
+
+            assertThat(nt("and").keywordOperator(() -> {
+                throw new AssertionError("should not create operator");
+            }, new HashSet<>(Arrays.asList("delimiter"))).parse(new TestProcedure(sourceCode))).isEmpty();
+        }
     }
 
     @Nested
@@ -346,4 +364,54 @@ class NotationTest extends BaseTest {
             assertThat(sourceCode.hasCode()).isFalse();
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class Then {
+        NodeParser<TestNode, TestProcedure> parser = nt("a").node(TestNode::new);
+        NodeParser.Mandatory<TestNode, TestProcedure> mandatory =
+                nt("a").<TestNode, TestProcedure>node(TestNode::new).mandatory("");
+
+        @Test
+        void return_node_when_all_notations_match() {
+            SourceCode sourceCode = givenSourceCode("( [ a");
+
+            Optional<TestNode> testNode = nt("(").then(nt("[")).before(parser).parse(new TestProcedure(sourceCode));
+
+            assertThat(testNode.get().getContent()).isEqualTo("a");
+            assertThat(testNode.get().getPositionBegin()).isEqualTo(4 + START_POSITION);
+            assertThat(sourceCode.hasCode()).isFalse();
+        }
+
+        @Test
+        void return_empty_and_back_position_when_later_notation_not_match() {
+            SourceCode sourceCode = givenSourceCode("( { a");
+
+            assertThat(nt("(").then(nt("[")).before(parser).parse(new TestProcedure(sourceCode))).isEmpty();
+            assertThat(sourceCode.popChar(emptyMap())).isEqualTo('(');
+        }
+
+        @Test
+        void return_empty_and_back_position_when_parser_not_match() {
+            SourceCode sourceCode = givenSourceCode("( [ b");
+
+            assertThat(nt("(").then(nt("[")).before(parser).parse(new TestProcedure(sourceCode))).isEmpty();
+            assertThat(sourceCode.popChar(emptyMap())).isEqualTo('(');
+        }
+
+        @Test
+        void return_empty_and_back_position_before_mandatory_when_later_notation_not_match() {
+            SourceCode sourceCode = givenSourceCode("( { a");
+
+            assertThat(nt("(").then(nt("[")).before(mandatory).parse(new TestProcedure(sourceCode))).isEmpty();
+            assertThat(sourceCode.popChar(emptyMap())).isEqualTo('(');
+        }
+
+        @Test
+        void return_node_before_mandatory_when_all_notations_match() {
+            SourceCode sourceCode = givenSourceCode("([a");
+
+            assertThat(nt("(").then(nt("[")).before(mandatory).parse(new TestProcedure(sourceCode)).get()
+                    .getContent()).isEqualTo("a");
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NumberScannerTest extends BaseTest {
+    private final NodeParser<TestNode, TestProcedure> number = NumberScanner.numberNode(
+            new NumberScanner.Factory<TestNode>() {
+                @Override
+                public TestNode ofLong(long value) {
+                    return new TestNode(value);
+                }
+
+                @Override
+                public TestNode ofDouble(double value) {
+                    return new TestNode(value);
+                }
+
+                @Override
+                public TestNode ofBigDecimal(BigDecimal value) {
+                    return new TestNode(value);
+                }
+            }, new HashSet<>(asList(" ", ".", ",")));
+
+    private Object parse(String code) {
+        return number.parse(givenProcedureWithCode(code)).get().getContent();
+    }
+
+    @Test
+    void scan_integer_as_long() {
+        assertThat(parse("123")).isEqualTo(123L);
+        assertThat(parse("9223372036854775807")).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void scan_decimal_and_exponent_as_double() {
+        assertThat(parse("1.25")).isEqualTo(1.25);
+        assertThat(parse("12e3")).isEqualTo(12000.0);
+        assertThat(parse("0.1")).isEqualTo(0.1);
+        assertThat(parse("1.5E-400")).isEqualTo(0.0);
+        assertThat(parse("123456789.123456789e-5")).isEqualTo(1234.56789123456789);
+    }
+
+    @Test
+    void scan_overflowed_integer_as_big_decimal() {
+        assertThat(parse("123456789012345678901234")).isEqualTo(new BigDecimal("123456789012345678901234"));
+    }
+
+    @Test
+    void scan_decimal_with_long_fraction_as_double() {
+        assertThat(parse("1.23456789012345678901234")).isEqualTo(1.23456789012345678901234);
+        assertThat(parse("1.00000000000000000000")).isEqualTo(1.0);
+    }
+
+    @Test
+    void return_empty_when_number_not_end_with_delimiter() {
+        TestProcedure procedure = givenProcedureWithCode("12abc");
+
+        assertThat(number.parse(procedure)).isEmpty();
+        assertThat(procedure.getSourceCode().popChar(SourceCodeTest.NO_ESCAPE)).isEqualTo('1');
+        assertThat(parse("12 abc")).isEqualTo(12L);
+    }
+
+    @Test
+    void stop_at_first_char_not_part_of_number() {
+        TestProcedure procedure = givenProcedureWithCode(" 12.e");
+
+        TestNode node = number.parse(procedure).get();
+
+        assertThat(node.getContent()).isEqualTo(12L);
+        assertThat(node.getPositionBegin()).isEqualTo(1);
+        assertThat(procedure.getSourceCode().popChar(SourceCodeTest.NO_ESCAPE)).isEqualTo('.');
+    }
+
+    @Test
+    void return_empty_when_not_start_with_digit() {
+        TestProcedure procedure = givenProcedureWithCode("a1");
+
+        assertThat(number.parse(procedure)).isEmpty();
+        assertThat(procedure.getSourceCode().popChar(SourceCodeTest.NO_ESCAPE)).isEqualTo('a');
+    }
+}
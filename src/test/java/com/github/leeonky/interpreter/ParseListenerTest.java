@@ -0,0 +1,145 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.github.leeonky.interpreter.Rules.endOfRow;
+import static com.github.leeonky.interpreter.Rules.endWith;
+import static com.github.leeonky.interpreter.Rules.splitBy;
+import static com.github.leeonky.interpreter.Syntax.many;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseListenerTest extends BaseTest {
+    private final NodeParser<TestNode, TestProcedure> a = nt("a").node(TestNode::new)
+            .concat(nt("!").clause((token, input) -> new TestNode(input)));
+    private final NodeParser<TestNode, TestProcedure> item = Parser.oneOf(a.followedBy(nt(";")), a,
+            nt("-").operator(TestOperator::new).unary(a.mandatory("a")));
+    private final NodeParser<TestNode, TestProcedure> expression = item.concatAll(nt("+")
+            .operator(TestOperator::new).clause(item));
+    private final NodeParser<TestNode, TestProcedure> list = nt("[").before(many(expression)
+            .and(splitBy(nt(","))).and(endWith(nt("]"))).as(TestNode::new));
+
+    private final EventRecorder recorder = new EventRecorder();
+
+    @Test
+    void emit_events_instead_of_creating_nodes() {
+        TestProcedure procedure = givenProcedureWithCode("[a + a, a]");
+        TestNode placeholder = new TestNode();
+        procedure.listen(recorder, placeholder);
+
+        assertThat(list.parse(procedure).get()).isSameAs(placeholder);
+        assertThat(recorder.events).containsExactly("start@1", "a@1", "a@5", "operator@3", "a@8", "end@10");
+    }
+
+    @Test
+    void keep_creating_nodes_when_listen_without_placeholder() {
+        TestProcedure procedure = givenProcedureWithCode("[a + a, a]");
+        procedure.listen(recorder);
+
+        assertThat((List<?>) list.parse(procedure).get().getContent()).hasSize(2);
+        assertThat(recorder.events).containsExactly("start@1", "a@1", "a@5", "operator@3", "a@8", "end@10");
+    }
+
+    @Test
+    void discard_events_of_backtracked_alternative() {
+        TestProcedure procedure = givenProcedureWithCode("a");
+        procedure.listen(recorder, new TestNode());
+
+        item.parse(procedure);
+
+        assertThat(recorder.events).containsExactly("a@0");
+    }
+
+    @Test
+    void emit_clause_after_its_input() {
+        TestProcedure procedure = givenProcedureWithCode("[a! + a]");
+        procedure.listen(recorder, new TestNode());
+
+        list.parse(procedure);
+
+        assertThat(recorder.events).containsExactly("start@1", "a@1", "clause!@2", "a@6", "operator@4", "end@8");
+    }
+
+    @Test
+    void tell_unary_operator_from_binary() {
+        TestProcedure procedure = givenProcedureWithCode("[a, -a + a]");
+        procedure.listen(recorder, new TestNode());
+
+        list.parse(procedure);
+
+        assertThat(recorder.events).containsExactly("start@1", "a@1", "a@5", "unary@4", "a@9", "operator@7", "end@11");
+    }
+
+    @Test
+    void rebuild_same_tree_from_events() {
+        String code = "[a! + a + a!, a, -a, a + -a!]";
+        TestProcedure procedure = givenProcedureWithCode(code);
+        ParseTreeBuilder<TestContext, TestNode, TestExpression, TestOperator> builder = new ParseTreeBuilder<>(
+                procedure, token -> new TestNode(token.getContent()), TestNode::new, (token, input) -> new TestNode(input));
+        procedure.listen(builder, new TestNode());
+
+        list.parse(procedure);
+
+        assertThat(builder.getNodes()).hasSize(1);
+        assertThat(dump(builder.getNodes().get(0))).isEqualTo(dump(list.parse(givenProcedureWithCode(code)).get()));
+    }
+
+    @Test
+    void not_move_source_code_when_report_node_start() {
+        NodeParser<TestNode, TestProcedure> row = nt("|").before(many(nt("a").node(TestNode::new).mandatory("cell"))
+                .and(endOfRow(nt("|"))).and(splitBy(nt("|"))).as(TestNode::new));
+        TestProcedure procedure = givenProcedureWithCode("|\n| a |\nend");
+        procedure.listen(recorder);
+
+        TestNode table = many(row).and(endWith(nt("end"))).as(TestNode::new).parse(procedure);
+
+        assertThat((List<?>) table.getContent()).hasSize(2);
+        assertThat(recorder.events).containsExactly("start@0", "start@2", "end@2", "start@4", "a@4", "end@8",
+                "end@11");
+    }
+
+    private String dump(Object object) {
+        if (object instanceof TestExpression) {
+            TestExpression expression = (TestExpression) object;
+            return "(" + dump(expression.left()) + " " + expression.operator().getPosition() + " "
+                    + dump(expression.right()) + ")";
+        }
+        if (object instanceof TestNode)
+            return "<" + ((TestNode) object).getPositionBegin() + ":" + dump(((TestNode) object).getContent()) + ">";
+        if (object instanceof List)
+            return ((List<?>) object).stream().map(this::dump).collect(Collectors.joining(",", "[", "]"));
+        return String.valueOf(object);
+    }
+
+    private static class EventRecorder implements ParseListener<TestNode, TestOperator> {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void startNode(int position) {
+            events.add("start@" + position);
+        }
+
+        @Override
+        public void token(Token token) {
+            events.add(token.getContent() + "@" + token.getPosition());
+        }
+
+        @Override
+        public void operator(TestOperator operator, boolean unary, int position) {
+            events.add((unary ? "unary@" : "operator@") + position);
+        }
+
+        @Override
+        public void clause(Token token) {
+            events.add("clause" + token.getContent() + "@" + token.getPosition());
+        }
+
+        @Override
+        public void endNode(int position) {
+            events.add("end@" + position);
+        }
+    }
+}
@@ -3,6 +3,12 @@ package com.github.leeonky.interpreter;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.github.leeonky.interpreter.ParseBudget.budget;
+import static java.util.Collections.emptyMap;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
@@ -117,4 +123,166 @@ class ProcedureTest {
             })).isEqualTo(testNode);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class Budget {
+
+        @Test
+        void raise_error_when_steps_exceeded() {
+            TestProcedure procedure = givenProcedureWithCode("a");
+            procedure.setBudget(budget().maxSteps(2));
+            SourceCode sourceCode = procedure.getSourceCode();
+            sourceCode.tryFetch(Optional::empty);
+            sourceCode.tryFetch(Optional::empty);
+
+            ParseLimitException exception = assertThrows(ParseLimitException.class, () ->
+                    sourceCode.tryFetch(Optional::empty));
+
+            assertThat(exception.getLimit()).isEqualTo(ParseLimitException.Limit.STEPS);
+        }
+
+        @Test
+        void count_rewound_chars_as_steps() {
+            TestProcedure procedure = givenProcedureWithCode("abc");
+            SourceCode sourceCode = procedure.getSourceCode();
+
+            sourceCode.tryFetch(() -> {
+                sourceCode.popChar(emptyMap());
+                sourceCode.popChar(emptyMap());
+                return Optional.empty();
+            });
+
+            assertThat(sourceCode.getBudget().getSteps()).isEqualTo(3);
+        }
+
+        @Test
+        void raise_error_when_nested_too_deep_and_restore_depth() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.setBudget(budget().maxDepth(1));
+
+            ParseLimitException exception = assertThrows(ParseLimitException.class, () ->
+                    procedure.nested(() -> procedure.nested(() -> null)));
+
+            assertThat(exception.getLimit()).isEqualTo(ParseLimitException.Limit.DEPTH);
+            assertThat(procedure.getSourceCode().getBudget().getDepth()).isEqualTo(0);
+        }
+
+        @Test
+        void raise_error_when_cancelled() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.setBudget(budget().cancelWhen(() -> true));
+
+            ParseLimitException exception = assertThrows(ParseLimitException.class, () -> {
+                for (int i = 0; i < 2048; i++)
+                    procedure.getSourceCode().tryFetch(Optional::empty);
+            });
+
+            assertThat(exception.getLimit()).isEqualTo(ParseLimitException.Limit.CANCELLED);
+        }
+
+        @Test
+        void raise_error_when_deadline_passed() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.setBudget(budget().deadline(System.nanoTime() - 1));
+
+            ParseLimitException exception = assertThrows(ParseLimitException.class, () -> {
+                for (int i = 0; i < 2048; i++)
+                    procedure.getSourceCode().tryFetch(Optional::empty);
+            });
+
+            assertThat(exception.getLimit()).isEqualTo(ParseLimitException.Limit.DEADLINE);
+        }
+    }
+
+    @Nested
+    class SegmentStack {
+
+        @Test
+        void run_nested_action_on_new_stack_every_given_depth() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.segmentStack(2, 256 * 1024);
+            Thread caller = Thread.currentThread();
+
+            assertThat(procedure.nested(() -> {
+                assertThat(Thread.currentThread()).isSameAs(caller);
+                return procedure.nested(() -> {
+                    assertThat(Thread.currentThread()).isNotSameAs(caller);
+                    return "result";
+                });
+            })).isEqualTo("result");
+        }
+
+        @Test
+        void rethrow_error_from_new_stack_and_restore_depth() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.segmentStack(1, 256 * 1024);
+
+            SyntaxException exception = assertThrows(SyntaxException.class, () -> procedure.nested(() -> {
+                throw procedure.getSourceCode().syntaxError("error", 0);
+            }));
+
+            assertThat(exception).hasMessage("error");
+            assertThat(procedure.getSourceCode().getBudget().getDepth()).isEqualTo(0);
+        }
+
+        @Test
+        void parse_nesting_deeper_than_thread_stack() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.segmentStack(100, 1024 * 1024);
+
+            assertThat(nest(procedure, 100000)).isEqualTo(100000);
+        }
+
+        @Test
+        void reuse_segment_thread_for_sibling_actions() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.segmentStack(2, 256 * 1024);
+            Set<Thread> threads = new HashSet<>();
+
+            procedure.nested(() -> {
+                for (int i = 0; i < 1000; i++)
+                    procedure.nested(() -> threads.add(Thread.currentThread()));
+                return null;
+            });
+
+            assertThat(threads).hasSize(1);
+        }
+
+        @Test
+        void cancel_parse_on_new_stack_when_caller_interrupted() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.segmentStack(1, 256 * 1024);
+            Thread caller = Thread.currentThread();
+
+            ParseLimitException exception = assertThrows(ParseLimitException.class, () -> procedure.nested(() -> {
+                caller.interrupt();
+                while (true)
+                    procedure.getSourceCode().step();
+            }));
+
+            assertThat(exception.getLimit()).isEqualTo(ParseLimitException.Limit.CANCELLED);
+            assertThat(Thread.interrupted()).isTrue();
+        }
+
+        @Test
+        void wrap_checked_exception_from_new_stack() {
+            TestProcedure procedure = givenProcedureWithCode("");
+            procedure.segmentStack(1, 256 * 1024);
+            Exception checked = new Exception("checked");
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () ->
+                    procedure.nested(() -> sneakyThrow(checked)));
+
+            assertThat(exception).hasCause(checked);
+        }
+
+        @SuppressWarnings("unchecked")
+        private <E extends Throwable> Object sneakyThrow(Throwable throwable) throws E {
+            throw (E) throwable;
+        }
+
+        private int nest(TestProcedure procedure, int depth) {
+            return depth == 0 ? 0 : procedure.nested(() -> nest(procedure, depth - 1) + 1);
+        }
+    }
+}
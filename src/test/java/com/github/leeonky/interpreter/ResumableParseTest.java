@@ -0,0 +1,101 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+
+import static com.github.leeonky.interpreter.Notation.notation;
+import static com.github.leeonky.interpreter.Rules.endWith;
+import static com.github.leeonky.interpreter.Rules.splitBy;
+import static com.github.leeonky.interpreter.Syntax.many;
+import static com.github.leeonky.interpreter.TokenSpec.tokenSpec;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResumableParseTest extends BaseTest {
+    private final NodeParser.Mandatory<TestNode, TestProcedure> list = many(nt("abc").node(TestNode::new)
+            .mandatory("expect abc")).and(splitBy(nt(","))).and(endWith(nt(";"))).as(TestNode::new);
+
+    private ResumableParse<TestNode> givenResumableParse() {
+        return new ResumableParse<>(singletonList(notation("#")), sourceCode -> list.parse(new TestProcedure(sourceCode)));
+    }
+
+    @Test
+    void wait_for_more_input_and_continue_parsing_from_last_position() {
+        ResumableParse<TestNode> parse = givenResumableParse();
+        assertThat(parse.needsMoreInput()).isTrue();
+
+        parse.append(" a").append("bc , ab").append("c # comm").append("ent\n,abc");
+        assertThat(parse.needsMoreInput()).isTrue();
+
+        parse.append(";");
+        assertThat(parse.needsMoreInput()).isFalse();
+
+        List<?> nodes = (List<?>) parse.finish().getContent();
+        assertThat(nodes).hasSize(3);
+        assertThat(((TestNode) nodes.get(2)).getPositionBegin()).isEqualTo(22);
+    }
+
+    @Test
+    void raise_syntax_error_when_input_finished_before_parse_complete() {
+        ResumableParse<TestNode> parse = givenResumableParse().append("abc,");
+
+        assertThatThrownBy(parse::finish).isInstanceOf(SyntaxException.class)
+                .hasMessageContaining("Should end with `;`");
+    }
+
+    @Test
+    void stop_waiting_when_parse_failed_on_received_input() {
+        ResumableParse<TestNode> parse = givenResumableParse().append("abc,xyz");
+
+        assertThat(parse.needsMoreInput()).isFalse();
+        assertThatThrownBy(parse::finish).isInstanceOf(SyntaxException.class).hasMessageContaining("expect abc");
+    }
+
+    @Test
+    void stop_parser_and_reject_input_after_closed() {
+        ResumableParse<TestNode> parse = givenResumableParse().append("abc,");
+
+        parse.close();
+
+        assertThat(parse.needsMoreInput()).isFalse();
+        assertThatThrownBy(parse::finish).isInstanceOf(ParseLimitException.class).hasMessage("Parse cancelled");
+        assertThatThrownBy(() -> parse.append("abc;")).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void reject_input_after_parse_completed() {
+        ResumableParse<TestNode> parse = givenResumableParse().append("abc;");
+
+        assertThatThrownBy(() -> parse.append("abc;")).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Parse already completed");
+        assertThat(parse.finish().getContent()).isInstanceOf(List.class);
+    }
+
+    @Test
+    void reject_input_after_parse_failed() {
+        ResumableParse<TestNode> parse = givenResumableParse().append("abc,xyz");
+
+        assertThatThrownBy(() -> parse.append(";")).isInstanceOf(IllegalStateException.class)
+                .hasMessage("Parse already failed").hasCauseInstanceOf(SyntaxException.class);
+    }
+
+    @Test
+    void scan_tokens_from_received_input() {
+        TokenScanner<TestContext, TestNode, TestExpression, TestOperator, TestProcedure> identifier = tokenSpec(
+                Character::isLetter, new HashSet<>(), new HashSet<>(asList(' ', ',', ';'))).scanner();
+        NodeParser.Mandatory<TestNode, TestProcedure> identifiers = many(identifier.nodeParser(token ->
+                new TestNode(token.getContent())).mandatory("expect identifier")).and(splitBy(nt(",")))
+                .and(endWith(nt(";"))).as(TestNode::new);
+        ResumableParse<TestNode> parse = new ResumableParse<>(singletonList(notation("#")),
+                sourceCode -> identifiers.parse(new TestProcedure(sourceCode)));
+
+        parse.append("ab").append("c, x").append("yz;");
+
+        assertThat((List<?>) parse.finish().getContent()).extracting(node -> ((TestNode) node).getContent())
+                .containsExactly("abc", "xyz");
+    }
+}
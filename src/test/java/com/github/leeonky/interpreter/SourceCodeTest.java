@@ -7,6 +7,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Optional;
+import java.util.regex.Pattern;
 
 import static com.github.leeonky.interpreter.Notation.notation;
 import static com.github.leeonky.interpreter.TokenSpec.tokenSpec;
@@ -17,8 +18,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 class SourceCodeTest extends BaseTest {
 
     public static final HashMap<String, Character> NO_ESCAPE = new HashMap<>();
-    public static final TriplePredicate<String, Integer, Integer> ONE_CHAR_TOKEN = (c1, c2, s) -> s == 1;
-    public static final TriplePredicate<String, Integer, Integer> UNLIMITED_ENDING = (c1, c2, s) -> false;
+    public static final TriplePredicate<CharSequence, Integer, Integer> ONE_CHAR_TOKEN = (c1, c2, s) -> s == 1;
+    public static final TriplePredicate<CharSequence, Integer, Integer> UNLIMITED_ENDING = (c1, c2, s) -> false;
 
     @Nested
     class HasCode {
@@ -377,6 +378,46 @@ class SourceCodeTest extends BaseTest {
         }
     }
 
+    @Nested
+    class RegexTokenSpec {
+        private final TokenSpec number = TokenSpec.regex(Pattern.compile("-?\\d+(\\.\\d+)?"));
+
+        @Test
+        void return_token_matched_at_current_position() {
+            SourceCode sourceCode = BaseTest.createSourceCode(" -1.5e");
+
+            Token token = number.scanner().scan(sourceCode).get();
+
+            assertThat(token.getContent()).isEqualTo("-1.5");
+            assertThat(token.getPosition()).isEqualTo(1);
+            assertThat(sourceCode.popChar(NO_ESCAPE)).isEqualTo('e');
+        }
+
+        @Test
+        void return_empty_and_back_position_when_not_match() {
+            SourceCode sourceCode = BaseTest.createSourceCode(" a1");
+
+            assertThat(number.scanner().scan(sourceCode)).isEmpty();
+            assertThat(sourceCode.popChar(NO_ESCAPE)).isEqualTo('a');
+        }
+
+        @Test
+        void return_empty_when_excluded() {
+            SourceCode sourceCode = BaseTest.createSourceCode("null");
+
+            assertThat(TokenSpec.regex(Pattern.compile("[a-z]+"), new HashSet<>(asList("null")))
+                    .scanner().scan(sourceCode)).isEmpty();
+        }
+
+        @Test
+        void see_chars_before_token_in_look_behind() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a1");
+            sourceCode.popChar(NO_ESCAPE);
+
+            assertThat(TokenSpec.regex(Pattern.compile("\\b\\d")).scanner().scan(sourceCode)).isEmpty();
+        }
+    }
+
     @Nested
     class CodeBefore {
 
@@ -454,4 +495,156 @@ class SourceCodeTest extends BaseTest {
             assertThat(testNode.getPositionBegin()).isEqualTo(1);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    class FurthestFailureTracking {
+
+        @Test
+        void record_expected_notations_at_furthest_position() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a b");
+            sourceCode.popWord(notation("x"));
+            sourceCode.popWord(notation("a"));
+            sourceCode.popWord(notation("y"));
+            sourceCode.popWord(notation("z"));
+
+            assertThat(sourceCode.getFurthestFailure().getPosition()).isEqualTo(2);
+            assertThat(sourceCode.getFurthestFailure().getExpected()).containsExactly("y", "z");
+        }
+
+        @Test
+        void keep_furthest_position_after_rewind() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a b");
+            sourceCode.tryFetch(() -> sourceCode.popWord(notation("a")).flatMap(t -> sourceCode.popWord(notation("c"))));
+            sourceCode.popWord(notation("d"));
+
+            assertThat(sourceCode.getFurthestFailure().getPosition()).isEqualTo(2);
+            assertThat(sourceCode.getFurthestFailure().getExpected()).containsExactly("c");
+        }
+
+        @Test
+        void record_expected_string() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a");
+            sourceCode.popString("b");
+
+            assertThat(sourceCode.furthestSyntaxError("error")).hasMessage("error, expect `b`");
+        }
+    }
+
+    @Nested
+    class SkipBlock {
+
+        @Test
+        void skip_to_after_matched_closing() {
+            SourceCode sourceCode = BaseTest.createSourceCode("[ [a] ] b");
+            sourceCode.popWord(notation("["));
+
+            sourceCode.skipBlock("[", "]");
+
+            assertThat(sourceCode.nextPosition()).isEqualTo(8);
+        }
+
+        @Test
+        void ignore_brackets_in_strings_and_comments() {
+            SourceCode sourceCode = BaseTest.createSourceCode("[']' \"\\\"]\" # ]\n] b");
+            sourceCode.popWord(notation("["));
+
+            sourceCode.skipBlock("[", "]");
+
+            assertThat(sourceCode.popWord(notation("b"))).isPresent();
+        }
+
+        @Test
+        void fork_source_code_at_given_position() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a  b");
+
+            SourceCode fork = sourceCode.fork(1);
+
+            assertThat(fork.nextPosition()).isEqualTo(3);
+            assertThat(sourceCode.nextPosition()).isEqualTo(0);
+        }
+    }
+
+    @Nested
+    class Structure {
+
+        @Test
+        void index_matching_brackets_out_of_strings_and_comments() {
+            String code = "{a: [1, ')'] # }\n(b)}";
+            StructuralIndex structure = BaseTest.createSourceCode(code).structure();
+
+            assertThat(structure.matching(0)).isEqualTo(code.length() - 1);
+            assertThat(structure.matching(code.length() - 1)).isEqualTo(0);
+            assertThat(structure.matching(4)).isEqualTo(11);
+            assertThat(structure.matching(code.indexOf('('))).isEqualTo(code.length() - 2);
+            assertThat(structure.matching(1)).isEqualTo(-1);
+        }
+
+        @Test
+        void index_line_indents() {
+            String code = "a:\n  b\n  # c\n\n    d\ne";
+            StructuralIndex structure = BaseTest.createSourceCode(code).structure();
+
+            assertThat(structure.lineCount()).isEqualTo(6);
+            assertThat(structure.indent(0)).isEqualTo(0);
+            assertThat(structure.indent(1)).isEqualTo(2);
+            assertThat(structure.indent(2)).isEqualTo(-1);
+            assertThat(structure.indent(4)).isEqualTo(4);
+            assertThat(structure.lineOf(code.indexOf('d'))).isEqualTo(4);
+            assertThat(structure.lineEnd(0)).isEqualTo(2);
+        }
+
+        @Test
+        void end_unterminated_string_at_newline() {
+            String code = "{a: 'b\\\n}\n[\"c]";
+
+            assertThat(BaseTest.createSourceCode(code).structure().matching(0)).isEqualTo(code.indexOf('}'));
+            assertThat(new CharStream(code).blockEnd(1, "{", "}", emptyList())).isEqualTo(code.indexOf('}'));
+            assertThat(new CharStream(code).blockEnd(code.indexOf('[') + 1, "[", "]", emptyList())).isEqualTo(-1);
+        }
+
+        @Test
+        void skip_block_by_structure_and_share_structure_with_fork() {
+            SourceCode sourceCode = BaseTest.createSourceCode("[a, [b]] c");
+            sourceCode.popWord(notation("["));
+
+            sourceCode.skipBlock("[", "]");
+
+            assertThat(sourceCode.nextPosition()).isEqualTo(9);
+            assertThat(sourceCode.fork(0).structure()).isSameAs(sourceCode.structure());
+        }
+    }
+
+    @Nested
+    class Lexed {
+
+        @Test
+        void skip_blanks_and_comments_with_lexed_table() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a  # c\n // d\n b").lex(asList(notation("a"),
+                    notation("b")));
+
+            assertThat(sourceCode.popWord(notation("a"))).isPresent();
+            assertThat(sourceCode.nextPosition()).isEqualTo(14);
+            assertThat(sourceCode.popWord(notation("b"))).isPresent();
+            assertThat(sourceCode.hasCode()).isFalse();
+        }
+
+        @Test
+        void match_prefix_of_longest_lexed_notation() {
+            SourceCode sourceCode = BaseTest.createSourceCode("ab").lex(asList(notation("a"), notation("ab")));
+
+            assertThat(sourceCode.startsWith(notation("a"))).isTrue();
+            assertThat(sourceCode.startsWith(notation("ab"))).isTrue();
+            assertThat(sourceCode.startsWith(notation("abc"))).isFalse();
+            assertThat(sourceCode.startsWith(notation("b"))).isFalse();
+        }
+
+        @Test
+        void produce_kind_start_and_end_of_tokens() {
+            SourceCode sourceCode = BaseTest.createSourceCode("a ab xy z").lex(asList(notation("a"),
+                    notation("ab")));
+
+            assertThat(sourceCode.lexed().tokens()).containsExactly(0, 0, 1, 1, 2, 4, -1, 5, 7, -1, 8, 9);
+            assertThat(sourceCode.lexed().label(sourceCode.lexed().kind("ab"))).isEqualTo("ab");
+        }
+    }
+}
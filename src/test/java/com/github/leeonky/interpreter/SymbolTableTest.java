@@ -0,0 +1,52 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static com.github.leeonky.interpreter.TokenSpec.tokenSpec;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolTableTest extends BaseTest {
+    private final SymbolTable symbols = new SymbolTable();
+
+    @Test
+    void intern_same_slice_to_same_instance_and_id() {
+        String code = "name.name.age";
+
+        String name = symbols.intern(code, 0, 4);
+
+        assertThat(name).isEqualTo("name");
+        assertThat(symbols.intern(code, 5, 9)).isSameAs(name);
+        assertThat(symbols.intern(new StringBuilder("name"), 0, 4)).isSameAs(name);
+        assertThat(symbols.id(code, 10, 13)).isEqualTo(1);
+        assertThat(symbols.id("name")).isEqualTo(0);
+        assertThat(symbols.symbol(1)).isEqualTo("age");
+        assertThat(symbols.size()).isEqualTo(2);
+    }
+
+    @Test
+    void keep_ids_when_table_grows() {
+        for (int i = 0; i < 1000; i++)
+            assertThat(symbols.id("s" + i)).isEqualTo(i);
+
+        for (int i = 0; i < 1000; i++)
+            assertThat(symbols.id("s" + i)).isEqualTo(i);
+        assertThat(symbols.size()).isEqualTo(1000);
+    }
+
+    @Test
+    void create_node_with_interned_symbol_of_token() {
+        TokenScanner<TestContext, TestNode, TestExpression, TestOperator, TestProcedure> identifier = tokenSpec(
+                Character::isLetter, new HashSet<>(), new HashSet<>(asList(' ', '.'))).scanner();
+        TestProcedure procedure = givenProcedureWithCode("name.name");
+
+        Object first = identifier.symbolNode(TestNode::new).parse(procedure).get().getContent();
+        procedure.getSourceCode().popChar(SourceCodeTest.NO_ESCAPE);
+        Object second = identifier.symbolNode(TestNode::new).parse(procedure).get().getContent();
+
+        assertThat(first).isEqualTo("name");
+        assertThat(second).isSameAs(first);
+    }
+}
@@ -3,13 +3,17 @@ package com.github.leeonky.interpreter;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static com.github.leeonky.interpreter.Rules.*;
+import static com.github.leeonky.interpreter.Syntax.each;
 import static com.github.leeonky.interpreter.Syntax.many;
+import static com.github.leeonky.interpreter.Syntax.parallelRows;
 import static com.github.leeonky.interpreter.Syntax.single;
 import static java.util.Collections.emptyMap;
 import static java.util.Optional.*;
@@ -186,7 +190,7 @@ class SyntaxTest extends BaseTest {
                 return node;
             }).parse(testProcedure)).isSameAs(node);
 
-            verify(many, times(3)).isClose(testProcedure);
+            verify(many, times(1)).isClose(testProcedure);
             verify(many).close(testProcedure);
         }
     }
@@ -269,7 +273,7 @@ class SyntaxTest extends BaseTest {
                 return node;
             }).parse(testProcedure)).isSameAs(node);
 
-            verify(many, times(3)).isClose(testProcedure);
+            verify(many, times(1)).isClose(testProcedure);
             verify(many).close(testProcedure);
         }
     }
@@ -714,6 +718,149 @@ class SyntaxTest extends BaseTest {
         }
     }
 
+    @Nested
+    class Each {
+        private final List<Integer> rows = new ArrayList<>();
+        private final NodeParser.Mandatory<TestNode, TestProcedure> row = nt("|").before(many(nt("a")
+                .node(TestNode::new).mandatory("cell")).and(endOfRow(nt("|"))).and(splitBy(nt("|")))
+                .as(TestNode::new)).mandatory("row");
+        private final List<TestProcedure> procedures = new ArrayList<>();
+        private final NodeParser.Mandatory<TestNode, TestProcedure> table = each(row, (procedure, node) -> {
+            procedures.add(procedure);
+            rows.add(((List<?>) node.getContent()).size());
+        }).and(endWith(nt("end"))).as(TestNode::new);
+
+        @Test
+        void should_pass_each_row_to_consumer_in_order_and_create_node_with_row_count() {
+            TestProcedure testProcedure = givenProcedureWithCode("| a | a |\n| a |\n| a | a | a |\nend");
+
+            assertThat(table.parse(testProcedure).getContent()).isEqualTo(3);
+            assertThat(rows).containsExactly(2, 1, 3);
+            assertThat(procedures).containsOnly(testProcedure);
+        }
+
+        @Test
+        void should_keep_rows_before_error() {
+            TestProcedure testProcedure = givenProcedureWithCode("| a |\n| a | b |\nend");
+
+            assertThatThrownBy(() -> table.parse(testProcedure)).isInstanceOf(SyntaxException.class);
+            assertThat(rows).containsExactly(1);
+        }
+
+        @Test
+        void raise_error_instead_of_backtracking_over_streamed_rows() {
+            TestProcedure testProcedure = givenProcedureWithCode("rows | a |\n| a | a |\nend !");
+            NodeParser<TestNode, TestProcedure> parser = Parser.oneOf(nt("rows").with(table).followedBy(nt(";")),
+                    nt("rows").node(TestNode::new));
+
+            assertThatThrownBy(() -> parser.parse(testProcedure)).isInstanceOf(SyntaxException.class)
+                    .hasMessageStartingWith("Cannot backtrack over streamed elements");
+            assertThat(rows).containsExactly(1, 2);
+        }
+
+        @Test
+        void backtrack_before_any_row_is_streamed() {
+            TestProcedure testProcedure = givenProcedureWithCode("rows end !");
+            NodeParser<TestNode, TestProcedure> parser = Parser.oneOf(nt("rows").with(table).followedBy(nt(";")),
+                    nt("rows").node(TestNode::new));
+
+            assertThat(parser.parse(testProcedure).get().getContent()).isEqualTo("rows");
+            assertThat(rows).isEmpty();
+        }
+    }
+
+    @Nested
+    class ParallelRows {
+        private final NodeParser.Mandatory<TestNode, TestProcedure> table = table(2);
+
+        private NodeParser.Mandatory<TestNode, TestProcedure> table(int batchSize) {
+            return table(batchSize, TestProcedure::new);
+        }
+
+        private NodeParser.Mandatory<TestNode, TestProcedure> table(int batchSize,
+                                                                    Function<SourceCode, TestProcedure> factory) {
+            return parallelRows(nt("|"), () -> nt("|").before(many(nt("a").node(TestNode::new).mandatory("cell"))
+                            .and(endOfRow(nt("|"))).and(splitBy(nt("|"))).as(TestNode::new)).mandatory("row"),
+                    factory, batchSize).and(endWith(nt("end"))).as(TestNode::new);
+        }
+
+        private final String code = "| a |\n| a | a |\n# comment\n\n| a | a | a |\n| a |\n| a | a |\nend";
+
+        @Test
+        void should_parse_rows_in_batches_and_keep_row_order_and_positions() {
+            TestProcedure testProcedure = givenProcedureWithCode(code);
+
+            List<?> rows = (List<?>) table.parse(testProcedure).getContent();
+
+            assertThat(rows).hasSize(5);
+            assertThat(rows.stream().map(r -> ((List<?>) ((TestNode) r).getContent()).size()))
+                    .containsExactly(1, 2, 3, 1, 2);
+            assertThat(((TestNode) ((List<?>) ((TestNode) rows.get(3)).getContent()).get(0)).getPositionBegin())
+                    .isEqualTo(code.indexOf("| a |\n| a | a |\nend") + 2);
+            assertThat(testProcedure.getSourceCode().hasCode()).isFalse();
+        }
+
+        @Test
+        void should_raise_error_of_first_failed_row_at_absolute_position() {
+            String code = this.code.replace("| a |\n| a | a |\nend", "| a |\n| b | a |\nend");
+
+            SyntaxException exception = assertThrows(SyntaxException.class,
+                    () -> table.parse(givenProcedureWithCode(code)));
+
+            assertThat(exception).hasMessage("cell");
+            assertThat(exception.show(code)).contains("| b | a |\n  ^");
+        }
+
+        @Test
+        void should_not_share_row_close_state_between_concurrent_batches() {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < 2000; i++)
+                builder.append(i % 3 == 0 ? "| a |\n" : i % 3 == 1 ? "| a | a |\n" : "| a | a | a |\n");
+            String code = builder.append("end").toString();
+            NodeParser.Mandatory<TestNode, TestProcedure> table = table(3);
+
+            for (int i = 0; i < 20; i++) {
+                List<?> rows = (List<?>) table.parse(givenProcedureWithCode(code)).getContent();
+
+                assertThat(rows).hasSize(2000);
+                for (int r = 0; r < rows.size(); r++)
+                    assertThat((List<?>) ((TestNode) rows.get(r)).getContent()).hasSize(r % 3 + 1);
+            }
+        }
+
+        @Test
+        void should_share_symbols_and_stop_workers_when_out_of_budget() {
+            List<TestProcedure> workers = new ArrayList<>();
+            TestProcedure testProcedure = givenProcedureWithCode(code);
+
+            assertThat((List<?>) table(2, sourceCode -> {
+                TestProcedure worker = new TestProcedure(sourceCode);
+                workers.add(worker);
+                return worker;
+            }).parse(testProcedure).getContent()).hasSize(5);
+            assertThat(workers).hasSize(3).allSatisfy(worker ->
+                    assertThat(worker.getSymbols()).isSameAs(testProcedure.getSymbols()));
+            assertThat(testProcedure.getSourceCode().getBudget().getSteps())
+                    .isGreaterThan(workers.get(0).getSourceCode().getBudget().getSteps());
+
+            TestProcedure limited = givenProcedureWithCode(code);
+            limited.setBudget(ParseBudget.budget().maxSteps(10));
+            assertThatThrownBy(() -> table.parse(limited)).isInstanceOf(ParseLimitException.class)
+                    .hasMessage("Parse step budget exceeded");
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void should_parse_rows_on_caller_procedure_when_listening() {
+            TestProcedure testProcedure = givenProcedureWithCode(code);
+            testProcedure.listen(mock(ParseListener.class));
+
+            assertThat((List<?>) table(2, sourceCode -> {
+                throw new AssertionError("should not fork");
+            }).parse(testProcedure).getContent()).hasSize(5);
+        }
+    }
+
     @Nested
     class EndWithOptionalLine {
 
@@ -926,5 +1073,154 @@ class SyntaxTest extends BaseTest {
 
             assertThat(testNode).isEmpty();
         }
+
+        @Test
+        void should_not_create_node_when_not_end_with_target_notation() {
+            NodeParser<TestNode, TestProcedure> nodeParser = nt("a").node(TestNode::new);
+            TestProcedure procedure = givenProcedureWithCode("a+");
+
+            Optional<TestNode> testNode = single(nodeParser).and(enabledBefore(nt("|"))).as(node -> {
+                throw new AssertionError("should not create node");
+            }).parse(procedure);
+
+            assertThat(testNode).isEmpty();
+        }
+
+        @Test
+        void should_not_create_node_of_at_least_rule_when_not_end_with_target_notation() {
+            NodeParser<TestNode, TestProcedure> nodeParser = nt("a").node(TestNode::new);
+            TestProcedure procedure = givenProcedureWithCode("a a+");
+
+            Optional<TestNode> testNode = many(nodeParser).and(atLeast(1)).and(enabledBefore(nt("|"))).as(nodes -> {
+                throw new AssertionError("should not create node");
+            }).parse(procedure);
+
+            assertThat(testNode).isEmpty();
+            assertThat(procedure.getSourceCode().nextPosition()).isEqualTo(0);
+        }
+
+        @Test
+        void check_target_notation_when_wrapped_by_outer_closing_rule() {
+            NodeParser<TestNode, TestProcedure> nodeParser = nt("a").node(TestNode::new);
+
+            assertThat(single(nodeParser).and(enabledBefore(nt("|"))).and(endBefore(nt("|")))
+                    .as(Function.identity()).parse(givenProcedureWithCode("a|")).get().getContent()).isEqualTo("a");
+            assertThat(single(nodeParser).and(enabledBefore(nt("|"))).and(endBefore(nt("+"), nt("|")))
+                    .as(Function.identity()).parse(givenProcedureWithCode("a+"))).isEmpty();
+        }
+    }
+
+    @Nested
+    class ValidationMode {
+        private final Function<Object, TestNode> factory = content -> {
+            throw new AssertionError("should not create node");
+        };
+        private final NodeParser<TestNode, TestProcedure> list = nt("[")
+                .with(many(nt("a").node(factory::apply).mandatory("value"))
+                        .and(splitBy(nt(","))).and(endWith("]")).as(factory::apply));
+        private final NodeParser<TestNode, TestProcedure> expression = list.concat(nt("+")
+                .operator(TestOperator::new).clause(list.mandatory("list")));
+
+        @Test
+        void return_validation_node_without_creating_nodes() {
+            TestProcedure procedure = givenProcedureWithCode("[a, a] + [a]");
+            TestNode sentinel = new TestNode();
+            procedure.validationMode(sentinel);
+
+            assertThat(expression.parse(procedure).get()).isSameAs(sentinel);
+            assertThat(procedure.getSourceCode().hasCode()).isFalse();
+        }
+
+        @Test
+        void raise_syntax_error_in_validation_mode() {
+            TestProcedure procedure = givenProcedureWithCode("[a, a + [a]");
+            procedure.validationMode(new TestNode());
+
+            assertThat(assertThrows(SyntaxException.class, () -> expression.parse(procedure)))
+                    .hasMessage("Should end with `]`");
+        }
+
+        @Test
+        void keep_parsing_following_clauses_after_validation_node() {
+            TestProcedure procedure = givenProcedureWithCode("[a] + [a] + [a]");
+            procedure.validationMode(new TestNode());
+
+            list.concatAll(nt("+").operator(TestOperator::new).clause(list.mandatory("list"))).parse(procedure);
+
+            assertThat(procedure.getSourceCode().hasCode()).isFalse();
+        }
+    }
+
+    @Nested
+    class Lazy {
+        private int created = 0;
+        private NodeParser<TestNode, TestProcedure> object;
+        private final NodeParser.Mandatory<TestNode, TestProcedure> value = Parser.oneOf(Parser.lazyNode(() -> object),
+                nt("a").node(TestNode::new), nt("'}'").node(TestNode::new)).mandatory("value");
+
+        {
+            object = nt("{").with(many(value).and(splitBy(nt(","))).and(endWith("}"))
+                    .and(lazy("{", "}", TestProcedure::new, TestNode::new)).as(list -> {
+                        created++;
+                        return new TestNode(list);
+                    }));
+        }
+
+        @SuppressWarnings("unchecked")
+        private TestNode body(TestNode placeholder) {
+            return ((Supplier<TestNode>) placeholder.getContent()).get();
+        }
+
+        @Test
+        void skip_block_and_parse_body_on_first_access() {
+            TestProcedure procedure = givenProcedureWithCode("{a, {a, '}'} # }\n, a}, rest");
+
+            TestNode placeholder = object.parse(procedure).get();
+
+            assertThat(created).isEqualTo(0);
+            assertThat(procedure.getSourceCode().popWord(nt(",")).get().getPosition()).isEqualTo(21);
+            assertThat((List<?>) body(placeholder).getContent()).hasSize(3);
+            assertThat(body(placeholder)).isSameAs(body(placeholder));
+            assertThat(created).isEqualTo(1);
+        }
+
+        @Test
+        void raise_error_at_absolute_position_on_access() {
+            TestProcedure procedure = givenProcedureWithCode("{a, {a, b}}");
+            TestNode inner = (TestNode) ((List<?>) body(object.parse(procedure).get()).getContent()).get(1);
+
+            SyntaxException exception = assertThrows(SyntaxException.class, () -> body(inner));
+
+            assertThat(exception).hasMessage("value");
+            assertThat(exception.show("{a, {a, b}}")).isEqualTo("{a, {a, b}}\n        ^");
+        }
+
+        @Test
+        void raise_error_when_block_not_closed() {
+            TestProcedure procedure = givenProcedureWithCode("{a, {a}");
+
+            SyntaxException exception = assertThrows(SyntaxException.class, () -> object.parse(procedure));
+
+            assertThat(exception).hasMessage("Should end with `}`");
+            assertThat(exception.show("{a, {a}")).isEqualTo("{a, {a}\n       ^");
+        }
+
+        @Test
+        void parse_eagerly_in_validation_mode() {
+            TestProcedure procedure = givenProcedureWithCode("{a, {a, b}}");
+            procedure.validationMode(new TestNode());
+
+            assertThrows(SyntaxException.class, () -> object.parse(procedure));
+        }
+
+        @Test
+        @SuppressWarnings("unchecked")
+        void parse_eagerly_when_listening() {
+            TestProcedure procedure = givenProcedureWithCode("{a, {a}}");
+            procedure.listen(mock(ParseListener.class));
+
+            assertThat((List<?>) object.parse(procedure).get().getContent()).hasSize(2);
+            assertThat(created).isEqualTo(2);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,56 @@
+package com.github.leeonky.interpreter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+
+import static com.github.leeonky.interpreter.Notation.notation;
+import static com.github.leeonky.interpreter.TokenSpec.tokenSpec;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenLexerTest extends BaseTest {
+    private final TokenSpec identifier = tokenSpec(Character::isLetter, new HashSet<>(asList("true", "null")),
+            new HashSet<>(asList(' ', '.')));
+    private final TokenSpec variable = tokenSpec(c -> c == '$', new HashSet<>(), new HashSet<>(asList(' ', '.')))
+            .trimStart();
+    private final TokenLexer lexer = TokenLexer.compile(asList(notation("true"), notation(".")), identifier, variable);
+
+    @Test
+    void recognize_longest_token_and_kind() {
+        SourceCode sourceCode = createSourceCode(" trueValue.true");
+
+        TokenLexer.Lexeme lexeme = lexer.scan(sourceCode).get();
+        assertThat(lexeme.getKind()).isEqualTo(lexer.specKind(0));
+        assertThat(lexeme.getToken().getContent()).isEqualTo("trueValue");
+        assertThat(lexeme.getToken().getPosition()).isEqualTo(1);
+
+        assertThat(lexer.scan(sourceCode).get().getKind()).isEqualTo(lexer.keywordKind("."));
+        assertThat(lexer.scan(sourceCode).get().getKind()).isEqualTo(lexer.keywordKind("true"));
+        assertThat(sourceCode.hasCode()).isFalse();
+    }
+
+    @Test
+    void reject_excluded_keyword_and_back_position() {
+        SourceCode sourceCode = createSourceCode(" null");
+
+        assertThat(lexer.scan(sourceCode)).isEmpty();
+        assertThat(sourceCode.chars().position()).isEqualTo(1);
+    }
+
+    @Test
+    void trim_start_of_token() {
+        SourceCode sourceCode = createSourceCode("$ name.");
+
+        TokenLexer.Lexeme lexeme = lexer.scan(sourceCode).get();
+        assertThat(lexeme.getKind()).isEqualTo(lexer.specKind(1));
+        assertThat(lexeme.getToken().getContent()).isEqualTo("name");
+        assertThat(lexeme.getToken().getPosition()).isEqualTo(0);
+    }
+
+    @Test
+    void return_empty_when_nothing_matched() {
+        assertThat(TokenLexer.compile(emptyList(), identifier).scan(createSourceCode("+"))).isEmpty();
+    }
+}